@@ -0,0 +1,164 @@
+package org.terracottamc.network.raknet.compression;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terracottamc.logging.Logger;
+import org.terracottamc.network.packet.DecodingLimits;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PacketDecompressorBenchmark {
+
+    private static final int MAX_DECOMPRESSED_BATCH_SIZE = 8 * 1024 * 1024;
+    private static final int BOMB_SIZE = 64 * 1024 * 1024;
+
+    @Param({"normal", "bomb"})
+    private String batchType;
+
+    private EmbeddedChannel channel;
+    private PacketDecompressor packetDecompressor;
+    private ChannelHandlerContext context;
+    private ByteBuf batch;
+    private final List<Object> packets = new ArrayList<>();
+
+    /**
+     * Creates the decompressor with the default limits of the server and deflates either 64 packets of
+     * 200 bytes or a batch of 64 MiB zeros, which is rejected after 8 MiB
+     */
+    @Setup
+    public void setup() {
+        final DecodingLimits decodingLimits = new DecodingLimits(2 * 1024 * 1024, 32767, 2 * 1024 * 1024, 4096)
+                .setMaxDecompressedBatchSize(PacketDecompressorBenchmark.MAX_DECOMPRESSED_BATCH_SIZE)
+                .setMaxPacketsPerBatch(1024);
+
+        this.packetDecompressor = new PacketDecompressor(decodingLimits, new Logger() {
+            @Override
+            public void error(final String message) {
+                // the rejected bombs would otherwise flood the output of the benchmark
+            }
+        });
+        // the rejected bombs close the channel, which would tear the decompressor down after the first invocation
+        this.channel = new EmbeddedChannel(new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void close(final ChannelHandlerContext ctx, final ChannelPromise promise) {
+                promise.setSuccess();
+            }
+        }, this.packetDecompressor);
+        this.context = this.channel.pipeline().context(this.packetDecompressor);
+
+        final byte[] batchData = "bomb".equals(this.batchType) ?
+                new byte[PacketDecompressorBenchmark.BOMB_SIZE] : this.createBatchData(64, 200);
+        final byte[] compressedData = this.deflate(batchData);
+
+        this.batch = ByteBufAllocator.DEFAULT.directBuffer(compressedData.length).writeBytes(compressedData);
+    }
+
+    /**
+     * Releases the batch and closes the channel
+     */
+    @TearDown
+    public void tearDown() {
+        this.batch.release();
+        this.channel.finishAndReleaseAll();
+    }
+
+    /**
+     * Decompresses the batch and releases the decoded packets
+     *
+     * @return the amount of packets which were decoded
+     *
+     * @throws Exception if the batch could not be decompressed
+     */
+    @Benchmark
+    public int decompressBatch() throws Exception {
+        this.batch.readerIndex(0);
+        this.packetDecompressor.decode(this.context, this.batch, this.packets);
+
+        final int decodedPackets = this.packets.size();
+
+        for (final Object packet : this.packets) {
+            ((ByteBuf) packet).release();
+        }
+
+        this.packets.clear();
+
+        return decodedPackets;
+    }
+
+    private byte[] createBatchData(final int packetCount, final int packetLength) {
+        final Random random = new Random(0);
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final byte[] packetData = new byte[packetLength];
+
+        for (int i = 0; i < packetCount; i++) {
+            random.nextBytes(packetData);
+
+            int length = packetLength;
+
+            while ((length & ~0x7F) != 0) {
+                outputStream.write((length & 0x7F) | 0x80);
+                length >>>= 7;
+            }
+
+            outputStream.write(length);
+            outputStream.write(packetData, 0, packetData.length);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    private byte[] deflate(final byte[] data) {
+        final Deflater deflater = new Deflater(7, true);
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final byte[] chunk = new byte[8192];
+
+        deflater.setInput(data);
+        deflater.finish();
+
+        while (!deflater.finished()) {
+            outputStream.write(chunk, 0, deflater.deflate(chunk));
+        }
+
+        deflater.end();
+
+        return outputStream.toByteArray();
+    }
+}
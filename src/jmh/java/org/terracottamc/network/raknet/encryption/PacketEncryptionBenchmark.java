@@ -0,0 +1,100 @@
+package org.terracottamc.network.raknet.encryption;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PacketEncryptionBenchmark {
+
+    @Param({"256", "4096", "65536"})
+    private int batchSize;
+
+    @Param({"true", "false"})
+    private boolean encrypted;
+
+    private EmbeddedChannel sendingChannel;
+    private EmbeddedChannel receivingChannel;
+    private byte[] batchData;
+
+    /**
+     * Creates two channels which share the same key, so that the batches which are encrypted by the
+     * sending channel can be decrypted by the receiving one
+     */
+    @Setup
+    public void setup() {
+        this.sendingChannel = new EmbeddedChannel(new PacketEncryption());
+        this.receivingChannel = new EmbeddedChannel(new PacketEncryption());
+
+        if (this.encrypted) {
+            final byte[] secretKey = new byte[32];
+            new Random(0).nextBytes(secretKey);
+
+            PacketEncryption.enableEncryption(this.sendingChannel, secretKey);
+            PacketEncryption.enableEncryption(this.receivingChannel, secretKey);
+        }
+
+        this.batchData = new byte[this.batchSize];
+        new Random(1).nextBytes(this.batchData);
+    }
+
+    /**
+     * Closes both channels
+     */
+    @TearDown
+    public void tearDown() {
+        this.sendingChannel.finishAndReleaseAll();
+        this.receivingChannel.finishAndReleaseAll();
+    }
+
+    /**
+     * Writes a batch through the sending channel and reads it through the receiving channel
+     *
+     * @return the amount of bytes which were received
+     */
+    @Benchmark
+    public int transferBatch() {
+        final ByteBuf batch = this.sendingChannel.alloc().directBuffer(this.batchSize + 8).writeBytes(this.batchData);
+
+        this.sendingChannel.writeOutbound(batch);
+        this.receivingChannel.writeInbound((ByteBuf) this.sendingChannel.readOutbound());
+
+        final ByteBuf receivedBatch = this.receivingChannel.readInbound();
+
+        try {
+            return receivedBatch.readableBytes();
+        } finally {
+            receivedBatch.release();
+        }
+    }
+}
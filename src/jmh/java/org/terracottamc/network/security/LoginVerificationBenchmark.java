@@ -0,0 +1,114 @@
+package org.terracottamc.network.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terracottamc.network.security.jwt.JwtSignature;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginVerificationBenchmark {
+
+    private final MojangSecurityKeyFactory mojangSecurityKeyFactory = new MojangSecurityKeyFactory();
+    private final JwtSignature jwtSignature = new JwtSignature();
+
+    private String encodedPublicKey;
+    private byte[] signatureData;
+    private byte[] signatureDigest;
+    private byte[] derSignatureDigest;
+
+    /**
+     * Signs a link of a login chain with a fresh key, which is verified by the benchmarks
+     *
+     * @throws java.security.GeneralSecurityException when the key could not be generated
+     */
+    @Setup
+    public void setup() throws GeneralSecurityException {
+        final KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(new ECGenParameterSpec("secp384r1"));
+
+        final KeyPair keyPair = keyPairGenerator.generateKeyPair();
+
+        this.encodedPublicKey = Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+
+        // the header and the payload of a chain link are about one kilobyte
+        final StringBuilder jwtData = new StringBuilder();
+
+        while (jwtData.length() < 1024) {
+            jwtData.append("eyJ4NXUiOiJNSFl3RUFZSEtvWkl6ajBDQVFZRks0RUVBQ0lEWWdBRThFTGtpeHlMY3dsWnJ5VVFjdTFUdlBPbUk");
+        }
+
+        this.signatureData = jwtData.toString().getBytes(StandardCharsets.US_ASCII);
+        this.signatureDigest = this.jwtSignature.sign(keyPair.getPrivate(), this.signatureData);
+
+        final Signature signature = Signature.getInstance("SHA384withECDSA");
+        signature.initSign(keyPair.getPrivate());
+        signature.update(this.signatureData);
+
+        this.derSignatureDigest = signature.sign();
+    }
+
+    /**
+     * Verifies a chain link with the cached public key and the {@link java.security.Signature} of the thread
+     *
+     * @return whether the signature is valid
+     */
+    @Benchmark
+    public boolean verifyCachedKey() {
+        return this.jwtSignature.isValid(this.mojangSecurityKeyFactory.generatePublicKey(this.encodedPublicKey, true),
+                this.signatureData, this.signatureDigest);
+    }
+
+    /**
+     * Verifies a chain link like before the keys were cached, which parses the public key and creates
+     * a {@link java.security.Signature} for every verification
+     *
+     * @return whether the signature is valid
+     *
+     * @throws java.security.GeneralSecurityException when the key could not be parsed
+     */
+    @Benchmark
+    public boolean verifyUncachedKey() throws GeneralSecurityException {
+        final PublicKey publicKey = KeyFactory.getInstance("EC").generatePublic(
+                new X509EncodedKeySpec(Base64.getDecoder().decode(this.encodedPublicKey)));
+        final Signature signature = Signature.getInstance("SHA384withECDSA");
+        signature.initVerify(publicKey);
+        signature.update(this.signatureData);
+
+        return signature.verify(this.derSignatureDigest);
+    }
+}
@@ -0,0 +1,178 @@
+package org.terracottamc.util;
+
+import io.netty.buffer.ByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VarNumberBenchmark {
+
+    private static final int VALUE_COUNT = 1024;
+
+    /**
+     * Writes and reads an unsigned VarInt of the width of the given state
+     *
+     * @param state which holds the stream and the values
+     *
+     * @return the value which was read
+     */
+    @Benchmark
+    public int writeAndReadUnsignedVarInt(final VarIntState state) {
+        final BinaryStream binaryStream = state.binaryStream;
+
+        binaryStream.getBuffer().clear();
+        binaryStream.writeUnsignedVarInt(state.nextValue());
+
+        return binaryStream.readUnsignedVarInt();
+    }
+
+    /**
+     * Writes and reads an unsigned VarLong of the width of the given state
+     *
+     * @param state which holds the stream and the values
+     *
+     * @return the value which was read
+     */
+    @Benchmark
+    public long writeAndReadUnsignedVarLong(final VarLongState state) {
+        final BinaryStream binaryStream = state.binaryStream;
+
+        binaryStream.getBuffer().clear();
+        binaryStream.writeUnsignedVarLong(state.nextValue());
+
+        return binaryStream.readUnsignedVarLong();
+    }
+
+    /**
+     * Creates random values which take exactly the given amount of bytes when they are encoded
+     *
+     * @param width which represents the amount of bytes
+     *
+     * @return fresh values with the given width
+     */
+    private static long[] createValues(final int width) {
+        final Random random = new Random(width);
+        final long[] values = new long[VarNumberBenchmark.VALUE_COUNT];
+        final int bits = Math.min(width * 7, 64);
+        final long lowestValue = width == 1 ? 0 : 1L << (width - 1) * 7;
+
+        for (int i = 0; i < values.length; i++) {
+            final long randomBits = bits == 64 ? random.nextLong() : random.nextLong() & (1L << bits) - 1;
+
+            values[i] = randomBits | lowestValue;
+        }
+
+        return values;
+    }
+
+    @State(Scope.Thread)
+    public static class VarIntState {
+
+        @Param({"1", "2", "3", "4", "5"})
+        private int width;
+
+        private BinaryStream binaryStream;
+        private int[] values;
+        private int index;
+
+        /**
+         * Creates the stream and the values of the given width
+         */
+        @Setup
+        public void setup() {
+            final long[] values = VarNumberBenchmark.createValues(this.width);
+
+            this.binaryStream = new BinaryStream();
+            this.binaryStream.setBuffer(ByteBufAllocator.DEFAULT.directBuffer(16));
+            this.values = new int[values.length];
+
+            for (int i = 0; i < values.length; i++) {
+                this.values[i] = (int) values[i];
+
+                if (BinaryStream.computeUnsignedVarIntSize(this.values[i]) != this.width) {
+                    throw new IllegalStateException("The value " + this.values[i] + " is not " + this.width +
+                            " bytes wide");
+                }
+            }
+        }
+
+        /**
+         * Releases the stream
+         */
+        @TearDown
+        public void tearDown() {
+            this.binaryStream.release();
+        }
+
+        private int nextValue() {
+            return this.values[this.index++ & VarNumberBenchmark.VALUE_COUNT - 1];
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class VarLongState {
+
+        @Param({"1", "2", "3", "4", "5", "6", "7", "8", "9", "10"})
+        private int width;
+
+        private BinaryStream binaryStream;
+        private long[] values;
+        private int index;
+
+        /**
+         * Creates the stream and the values of the given width
+         */
+        @Setup
+        public void setup() {
+            this.binaryStream = new BinaryStream();
+            this.binaryStream.setBuffer(ByteBufAllocator.DEFAULT.directBuffer(16));
+            this.values = VarNumberBenchmark.createValues(this.width);
+
+            for (final long value : this.values) {
+                if (BinaryStream.computeUnsignedVarLongSize(value) != this.width) {
+                    throw new IllegalStateException("The value " + value + " is not " + this.width + " bytes wide");
+                }
+            }
+        }
+
+        /**
+         * Releases the stream
+         */
+        @TearDown
+        public void tearDown() {
+            this.binaryStream.release();
+        }
+
+        private long nextValue() {
+            return this.values[this.index++ & VarNumberBenchmark.VALUE_COUNT - 1];
+        }
+    }
+}
@@ -3,7 +3,6 @@ package org.terracottamc.entity;
 import org.terracottamc.entity.metadata.EntityFlag;
 import org.terracottamc.entity.metadata.EntityMetadata;
 import org.terracottamc.entity.metadata.EntityMetadataFlag;
-import org.terracottamc.entity.player.Player;
 import org.terracottamc.network.packet.SetEntityDataPacket;
 import org.terracottamc.server.Server;
 import org.terracottamc.util.EntityIdUtil;
@@ -152,8 +151,6 @@ public abstract class Entity {
         setEntityDataPacket.setEntityMetadata(entityMetadata);
         setEntityDataPacket.setTick(0L);
 
-        for (final Player player : Server.getInstance().getPlayers()) {
-            player.getPlayerNetworkConnection().sendPacket(setEntityDataPacket);
-        }
+        Server.getInstance().broadcastPacket(setEntityDataPacket);
     }
 }
\ No newline at end of file
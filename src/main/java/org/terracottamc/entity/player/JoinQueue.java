@@ -0,0 +1,275 @@
+package org.terracottamc.entity.player;
+
+import org.terracottamc.network.packet.TextPacket;
+import org.terracottamc.network.packet.type.ChatType;
+import org.terracottamc.util.TokenBucket;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class JoinQueue {
+
+    // the positions are sent once a second, as long as they have changed
+    private static final int POSITION_NOTIFICATION_INTERVAL = 20;
+
+    private final int maxConcurrentJoins;
+    private final TokenBucket joinRateBucket;
+    private final long joinTimeoutNanos;
+    private final Queue<QueuedJoin> queuedJoins = new ArrayDeque<>();
+    // maps the joining players to the time their join was started at
+    private final Map<Player, Long> joiningPlayers = new IdentityHashMap<>();
+
+    private long startedJoins;
+    private long completedJoins;
+    private long timedOutJoins;
+    private long totalWaitTime;
+    private long maxWaitTime;
+
+    /**
+     * Creates a new {@link org.terracottamc.entity.player.JoinQueue}
+     *
+     * @param maxConcurrentJoins which represents the amount of players that may be in the join phases at once
+     *                           or 0, when the players join without waiting
+     * @param joinsPerSecond     which represents the amount of joins that may be started every second
+     *                           or 0, when the rate is not limited
+     * @param joinTimeout        which represents the seconds a player may spend in the join phases before it is
+     *                           disconnected and its slot is freed or 0, when the join phases are not limited
+     */
+    public JoinQueue(final int maxConcurrentJoins, final int joinsPerSecond, final int joinTimeout) {
+        this.maxConcurrentJoins = maxConcurrentJoins;
+        this.joinRateBucket = joinsPerSecond > 0 ? new TokenBucket(joinsPerSecond, joinsPerSecond) : null;
+        this.joinTimeoutNanos = TimeUnit.SECONDS.toNanos(joinTimeout);
+    }
+
+    /**
+     * Queues the join of the given {@link org.terracottamc.entity.player.Player}. The given task starts the
+     * join phases, which last from the resource pack negotiation until the player is initialized, and is run on
+     * the main {@link java.lang.Thread} once a slot is free
+     *
+     * @param player   whose join should be queued
+     * @param joinTask which starts the join phases of the player
+     */
+    public synchronized void enqueue(final Player player, final Runnable joinTask) {
+        this.queuedJoins.offer(new QueuedJoin(player, joinTask));
+    }
+
+    /**
+     * Disconnects the players whose join phases exceeded the timeout, starts the queued joins for which a slot
+     * is free and tells the remaining players their position.
+     * This is called once every tick by the main {@link java.lang.Thread}
+     *
+     * @param currentTick which represents the current server tick
+     */
+    public void tick(final int currentTick) {
+        // a client which stalls in the join phases while keeping its session alive would block its slot forever
+        for (final Player player : this.pollTimedOutJoins()) {
+            player.disconnect("The join took too long");
+        }
+
+        QueuedJoin queuedJoin;
+
+        while ((queuedJoin = this.pollStartableJoin()) != null) {
+            queuedJoin.joinTask.run();
+        }
+
+        if (currentTick % JoinQueue.POSITION_NOTIFICATION_INTERVAL == 0) {
+            this.notifyPositions();
+        }
+    }
+
+    /**
+     * Completes the join of the given {@link org.terracottamc.entity.player.Player}, so that its slot is free again
+     *
+     * @param player whose join is completed
+     */
+    public synchronized void completeJoin(final Player player) {
+        if (this.joiningPlayers.remove(player) != null) {
+            this.completedJoins++;
+        }
+    }
+
+    /**
+     * Removes the given {@link org.terracottamc.entity.player.Player} from this queue and frees its slot,
+     * when the player quits before the join was completed
+     *
+     * @param player who should be removed
+     */
+    public synchronized void remove(final Player player) {
+        this.joiningPlayers.remove(player);
+        this.queuedJoins.removeIf(queuedJoin -> queuedJoin.player == player);
+    }
+
+    /**
+     * Retrieves the amount of players who wait for a free slot
+     *
+     * @return a fresh amount of queued players
+     */
+    public synchronized int getQueuedPlayers() {
+        return this.queuedJoins.size();
+    }
+
+    /**
+     * Retrieves the amount of players who are currently in the join phases
+     *
+     * @return a fresh amount of joining players
+     */
+    public synchronized int getJoiningPlayers() {
+        return this.joiningPlayers.size();
+    }
+
+    /**
+     * Retrieves the amount of joins which were started by this queue
+     *
+     * @return a fresh amount of started joins
+     */
+    public synchronized long getStartedJoins() {
+        return this.startedJoins;
+    }
+
+    /**
+     * Retrieves the amount of joins which were completed by the initialization of the player
+     *
+     * @return a fresh amount of completed joins
+     */
+    public synchronized long getCompletedJoins() {
+        return this.completedJoins;
+    }
+
+    /**
+     * Retrieves the amount of joins which were aborted, because they exceeded the timeout
+     *
+     * @return a fresh amount of timed out joins
+     */
+    public synchronized long getTimedOutJoins() {
+        return this.timedOutJoins;
+    }
+
+    /**
+     * Retrieves the average time in nanoseconds a player waited in this queue
+     *
+     * @return a fresh average time in nanoseconds
+     */
+    public synchronized long getAverageWaitTime() {
+        return this.startedJoins == 0 ? 0 : this.totalWaitTime / this.startedJoins;
+    }
+
+    /**
+     * Retrieves the longest time in nanoseconds a player waited in this queue
+     *
+     * @return a fresh time in nanoseconds
+     */
+    public synchronized long getMaxWaitTime() {
+        return this.maxWaitTime;
+    }
+
+    private synchronized List<Player> pollTimedOutJoins() {
+        if (this.joinTimeoutNanos <= 0 || this.joiningPlayers.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final long now = System.nanoTime();
+        List<Player> timedOutPlayers = Collections.emptyList();
+
+        for (final Iterator<Map.Entry<Player, Long>> iterator = this.joiningPlayers.entrySet().iterator();
+             iterator.hasNext(); ) {
+            final Map.Entry<Player, Long> joiningPlayer = iterator.next();
+
+            if (now - joiningPlayer.getValue() < this.joinTimeoutNanos) {
+                continue;
+            }
+
+            iterator.remove();
+
+            if (timedOutPlayers.isEmpty()) {
+                timedOutPlayers = new ArrayList<>();
+            }
+
+            timedOutPlayers.add(joiningPlayer.getKey());
+
+            this.timedOutJoins++;
+        }
+
+        return timedOutPlayers;
+    }
+
+    private synchronized QueuedJoin pollStartableJoin() {
+        // a player whose session was closed before its login was completed is never removed by the server
+        this.queuedJoins.removeIf(queuedJoin -> !queuedJoin.player.getPlayerNetworkConnection().getRakNetSession()
+                .isActive());
+
+        if (this.queuedJoins.isEmpty() ||
+                (this.maxConcurrentJoins > 0 && this.joiningPlayers.size() >= this.maxConcurrentJoins) ||
+                (this.joinRateBucket != null && !this.joinRateBucket.tryConsume(1))) {
+            return null;
+        }
+
+        final QueuedJoin queuedJoin = this.queuedJoins.poll();
+        final long now = System.nanoTime();
+        final long waitTime = now - queuedJoin.enqueueTime;
+
+        this.joiningPlayers.put(queuedJoin.player, now);
+        this.startedJoins++;
+        this.totalWaitTime += waitTime;
+        this.maxWaitTime = Math.max(this.maxWaitTime, waitTime);
+
+        return queuedJoin;
+    }
+
+    private synchronized void notifyPositions() {
+        int position = 0;
+
+        for (final QueuedJoin queuedJoin : this.queuedJoins) {
+            position++;
+
+            if (queuedJoin.notifiedPosition == position) {
+                continue;
+            }
+
+            queuedJoin.notifiedPosition = position;
+
+            final TextPacket textPacket = new TextPacket();
+            textPacket.setChatType(ChatType.CLIENT);
+            textPacket.setMessage("You are in the join queue at position " + position + " of " +
+                    this.queuedJoins.size());
+            textPacket.setXboxId("");
+            textPacket.setDeviceId("");
+
+            queuedJoin.player.getPlayerNetworkConnection().sendPacket(textPacket);
+        }
+    }
+
+    /**
+     * Holds a {@link org.terracottamc.entity.player.Player} who waits for a free slot
+     */
+    private static class QueuedJoin {
+
+        private final Player player;
+        private final Runnable joinTask;
+        private final long enqueueTime = System.nanoTime();
+
+        private int notifiedPosition;
+
+        private QueuedJoin(final Player player, final Runnable joinTask) {
+            this.player = player;
+            this.joinTask = joinTask;
+        }
+    }
+}
@@ -29,6 +29,7 @@ public class LoginChainData {
     private final String serverAddress;
     private final String thirdPartyName;
     private final boolean thirdPartyNameOnly;
+    private final String playFabId;
     private final DeviceInfo deviceInfo;
 
     /**
@@ -40,12 +41,14 @@ public class LoginChainData {
      * @param uuid            the uniqueId of the player
      * @param languageCode    that is the selected language of the players client
      * @param gameVersion     that is the game version of the players client
+     * @param playFabId       that is the play fab id of the players account
      * @param deviceInfo      that is the information about the players device
      */
     public LoginChainData(final int protocolVersion, final String username, final String xboxId, final UUID uuid,
                           final String languageCode, final String gameVersion, final String platformOfflineId,
                           final String platformOnlineId, final String selfSignedId, final String serverAddress,
-                          final String thirdPartyName, final boolean thirdPartyNameOnly, final DeviceInfo deviceInfo) {
+                          final String thirdPartyName, final boolean thirdPartyNameOnly, final String playFabId,
+                          final DeviceInfo deviceInfo) {
         this.protocolVersion = protocolVersion;
         this.username = username;
         this.xboxId = xboxId;
@@ -59,6 +62,7 @@ public class LoginChainData {
         this.serverAddress = serverAddress;
         this.thirdPartyName = thirdPartyName;
         this.thirdPartyNameOnly = thirdPartyNameOnly;
+        this.playFabId = playFabId;
     }
 
     /**
@@ -169,6 +173,15 @@ public class LoginChainData {
         return this.thirdPartyNameOnly;
     }
 
+    /**
+     * Retrieves the play fab id of the {@link org.terracottamc.entity.player.Player}
+     *
+     * @return a fresh {@link java.lang.String}
+     */
+    public String getPlayFabId() {
+        return this.playFabId;
+    }
+
     /**
      * Retrieves the {@link org.terracottamc.entity.player.info.DeviceInfo}
      * of the {@link org.terracottamc.entity.player.Player}
@@ -0,0 +1,198 @@
+package org.terracottamc.entity.player;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.util.ReferenceCountUtil;
+import org.terracottamc.network.packet.PacketPriority;
+import org.terracottamc.util.TokenBucket;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class OutboundPacketScheduler {
+
+    private static final PacketPriority[] PACKET_PRIORITIES = PacketPriority.values();
+
+    private final Channel rakNetSession;
+    private final TokenBucket playerBandwidthBucket;
+    private final TokenBucket globalBandwidthBucket;
+    private final Queue<ByteBuf>[] packetQueues;
+
+    private long queuedBytes;
+    private long throttledDrains;
+    private boolean closed;
+
+    /**
+     * Creates a new {@link org.terracottamc.entity.player.OutboundPacketScheduler}
+     *
+     * @param rakNetSession         which receives the scheduled packets
+     * @param playerBandwidthBucket which limits the bytes per second of this session or null for no limit
+     * @param globalBandwidthBucket which limits the bytes per second of all sessions or null for no limit
+     */
+    @SuppressWarnings("unchecked")
+    public OutboundPacketScheduler(final Channel rakNetSession, final TokenBucket playerBandwidthBucket,
+                                   final TokenBucket globalBandwidthBucket) {
+        this.rakNetSession = rakNetSession;
+        this.playerBandwidthBucket = playerBandwidthBucket;
+        this.globalBandwidthBucket = globalBandwidthBucket;
+        this.packetQueues = new Queue[OutboundPacketScheduler.PACKET_PRIORITIES.length];
+
+        for (int i = 0; i < this.packetQueues.length; i++) {
+            this.packetQueues[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Queues the given encoded packet in the queue of its priority class.
+     * Packets of the same class keep their order, while higher classes may overtake lower ones.
+     * The ownership of the {@link io.netty.buffer.ByteBuf} is passed to this scheduler
+     *
+     * @param encodedPacket  which should be queued
+     * @param packetPriority which represents the priority class of the packet
+     */
+    public synchronized void enqueue(final ByteBuf encodedPacket, final PacketPriority packetPriority) {
+        if (this.closed) {
+            ReferenceCountUtil.safeRelease(encodedPacket);
+
+            return;
+        }
+
+        this.packetQueues[packetPriority.ordinal()].offer(encodedPacket);
+        this.queuedBytes += encodedPacket.readableBytes();
+    }
+
+    /**
+     * Writes the queued packets to the RakNet session from the highest to the lowest priority class, as long as
+     * the bandwidth budgets allow it. Bulk downloads are held back while the session is not writable
+     * and the world streaming is held back too, once the session exceeds its high water mark twice
+     *
+     * @return the amount of packets which were written
+     */
+    public synchronized int drain() {
+        final boolean writable = this.rakNetSession.isWritable();
+        final boolean congested = !writable && this.rakNetSession.bytesBeforeWritable() >
+                this.rakNetSession.config().getWriteBufferHighWaterMark();
+
+        int writtenPackets = 0;
+
+        for (final PacketPriority packetPriority : OutboundPacketScheduler.PACKET_PRIORITIES) {
+            if ((packetPriority == PacketPriority.BULK && !writable) ||
+                    (packetPriority == PacketPriority.WORLD_STREAMING && congested)) {
+                continue;
+            }
+
+            final Queue<ByteBuf> packetQueue = this.packetQueues[packetPriority.ordinal()];
+            ByteBuf encodedPacket;
+
+            while ((encodedPacket = packetQueue.peek()) != null) {
+                final int packetSize = encodedPacket.readableBytes();
+
+                // control packets are always sent, but they are still charged to the budgets
+                if (packetPriority != PacketPriority.CONTROL && !this.hasBandwidth()) {
+                    // lower classes must not take the budget the waiting packet needs
+                    this.throttledDrains++;
+
+                    return writtenPackets;
+                }
+
+                this.consumeBandwidth(packetSize);
+
+                packetQueue.poll();
+
+                this.queuedBytes -= packetSize;
+                this.rakNetSession.write(encodedPacket);
+
+                writtenPackets++;
+            }
+        }
+
+        return writtenPackets;
+    }
+
+    /**
+     * Checks whether there are packets left which were held back by the last drain
+     *
+     * @return true, when packets are queued, otherwise false
+     */
+    public synchronized boolean hasQueuedPackets() {
+        for (final Queue<ByteBuf> packetQueue : this.packetQueues) {
+            if (!packetQueue.isEmpty()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Retrieves the amount of packets which are queued in the given priority class
+     *
+     * @param packetPriority which is used to retrieve the amount
+     *
+     * @return a fresh amount of queued packets
+     */
+    public synchronized int getQueuedPackets(final PacketPriority packetPriority) {
+        return this.packetQueues[packetPriority.ordinal()].size();
+    }
+
+    /**
+     * Retrieves the amount of bytes which are queued in all priority classes
+     *
+     * @return a fresh amount of queued bytes
+     */
+    public synchronized long getQueuedBytes() {
+        return this.queuedBytes;
+    }
+
+    /**
+     * Retrieves how often a drain was stopped, because a bandwidth budget was exhausted
+     *
+     * @return a fresh amount of throttled drains
+     */
+    public synchronized long getThrottledDrains() {
+        return this.throttledDrains;
+    }
+
+    /**
+     * Releases all queued packets. Packets which are queued afterwards are released right away
+     */
+    public synchronized void close() {
+        this.closed = true;
+
+        for (final Queue<ByteBuf> packetQueue : this.packetQueues) {
+            ByteBuf encodedPacket;
+
+            while ((encodedPacket = packetQueue.poll()) != null) {
+                ReferenceCountUtil.safeRelease(encodedPacket);
+            }
+        }
+
+        this.queuedBytes = 0;
+    }
+
+    private boolean hasBandwidth() {
+        return (this.playerBandwidthBucket == null || this.playerBandwidthBucket.hasTokens()) &&
+                (this.globalBandwidthBucket == null || this.globalBandwidthBucket.hasTokens());
+    }
+
+    private void consumeBandwidth(final int packetSize) {
+        if (this.playerBandwidthBucket != null) {
+            this.playerBandwidthBucket.consume(packetSize);
+        }
+
+        if (this.globalBandwidthBucket != null) {
+            this.globalBandwidthBucket.consume(packetSize);
+        }
+    }
+}
@@ -7,8 +7,6 @@ import org.terracottamc.network.packet.PlayStatusPacket;
 import org.terracottamc.network.packet.type.PlayStatus;
 import org.terracottamc.server.Server;
 
-import java.net.InetSocketAddress;
-
 /**
  * Copyright (c) 2021, TerracottaMC
  * All rights reserved.
@@ -185,13 +183,13 @@ public class Player extends EntityHuman {
         disconnectPacket.setDisconnectMessage(disconnectMessage);
         disconnectPacket.setHideDisconnectScreen(hideDisconnectScreen);
 
-        this.playerNetworkConnection.sendPacket(disconnectPacket);
+        // the session is closed right away, so that the packet cannot wait for the flush at the end of the tick
+        this.playerNetworkConnection.sendPacket(disconnectPacket, true);
 
         Server.getInstance().getLogger().info("The player " + this.name + " disconnected with reason: " +
                 disconnectMessage);
 
-        this.server.removePlayerByAddress((InetSocketAddress) this.getPlayerNetworkConnection().getRakNetSession()
-                .remoteAddress());
+        this.server.removePlayer(this);
 
         try {
             this.playerNetworkConnection.getRakNetSession().close().sync();
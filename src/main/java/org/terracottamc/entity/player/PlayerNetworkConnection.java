@@ -1,10 +1,17 @@
 package org.terracottamc.entity.player;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
 import org.terracottamc.network.packet.Packet;
+import org.terracottamc.network.packet.PacketPriority;
+import org.terracottamc.network.raknet.FlushStrategy;
+import org.terracottamc.network.raknet.compression.PacketCompressor;
 import org.terracottamc.server.Server;
+import org.terracottamc.util.TokenBucket;
 
-import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Copyright (c) 2021, TerracottaMC
@@ -19,8 +26,19 @@ import java.net.InetSocketAddress;
  */
 public class PlayerNetworkConnection {
 
+    private static final AttributeKey<Player> PLAYER_ATTRIBUTE_KEY = AttributeKey.valueOf("terracotta-player");
+
     private final Server server;
     private final Channel rakNetSession;
+    private final FlushStrategy flushStrategy;
+    private final OutboundPacketScheduler outboundPacketScheduler;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicBoolean encryptionHandshakePending = new AtomicBoolean();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder flushedPackets = new LongAdder();
+
+    private int protocolVersion;
+    private volatile int lastBatchSize;
 
     /**
      * Creates a new {@link org.terracottamc.entity.player.PlayerNetworkConnection}
@@ -31,6 +49,45 @@ public class PlayerNetworkConnection {
     public PlayerNetworkConnection(final Server server, final Channel rakNetSession) {
         this.server = server;
         this.rakNetSession = rakNetSession;
+        this.flushStrategy = server.getFlushStrategy();
+
+        final long playerBandwidthLimit = server.getPlayerBandwidthLimit();
+
+        this.outboundPacketScheduler = new OutboundPacketScheduler(rakNetSession, playerBandwidthLimit > 0 ?
+                new TokenBucket(playerBandwidthLimit, playerBandwidthLimit) : null, server.getGlobalBandwidthBucket());
+
+        rakNetSession.closeFuture().addListener(future -> this.outboundPacketScheduler.close());
+    }
+
+    /**
+     * Retrieves the {@link org.terracottamc.entity.player.Player} which is bound to the given
+     * {@link io.netty.channel.Channel}
+     *
+     * @param channel which is used to retrieve the {@link org.terracottamc.entity.player.Player}
+     *
+     * @return a fresh {@link org.terracottamc.entity.player.Player} or null, when the login has not been completed yet
+     */
+    public static Player retrievePlayer(final Channel channel) {
+        return channel.attr(PlayerNetworkConnection.PLAYER_ATTRIBUTE_KEY).get();
+    }
+
+    /**
+     * Binds the given {@link org.terracottamc.entity.player.Player} to the RakNet session of this connection,
+     * so that the network threads can retrieve it without a lookup
+     *
+     * @param player who should be bound
+     */
+    public void bindPlayer(final Player player) {
+        this.protocolVersion = player.getLoginChainData().getProtocolVersion();
+        this.rakNetSession.attr(PlayerNetworkConnection.PLAYER_ATTRIBUTE_KEY).set(player);
+    }
+
+    /**
+     * Removes the binding of the {@link org.terracottamc.entity.player.Player} from the RakNet session
+     * of this connection
+     */
+    public void unbindPlayer() {
+        this.rakNetSession.attr(PlayerNetworkConnection.PLAYER_ATTRIBUTE_KEY).set(null);
     }
 
     /**
@@ -53,6 +110,32 @@ public class PlayerNetworkConnection {
         return this.rakNetSession;
     }
 
+    /**
+     * Retrieves the protocol version of the {@link org.terracottamc.entity.player.Player}
+     * which is cached once the {@link org.terracottamc.entity.player.Player} was bound
+     *
+     * @return a fresh protocol version
+     */
+    public int getProtocolVersion() {
+        return this.protocolVersion;
+    }
+
+    /**
+     * Marks that the client has to answer the encryption handshake, before the login can be completed
+     */
+    public void beginEncryptionHandshake() {
+        this.encryptionHandshakePending.set(true);
+    }
+
+    /**
+     * Completes the pending encryption handshake, so that it can only be answered once
+     *
+     * @return true, when a handshake was pending, otherwise false
+     */
+    public boolean completeEncryptionHandshake() {
+        return this.encryptionHandshakePending.compareAndSet(true, false);
+    }
+
     /**
      * Sends a new {@link org.terracottamc.network.packet.Packet} to the client
      * of the {@link org.terracottamc.entity.player.Player} without flushing the data too
@@ -68,19 +151,141 @@ public class PlayerNetworkConnection {
      * of the {@link org.terracottamc.entity.player.Player}
      *
      * @param packet     the {@link org.terracottamc.network.packet.Packet} which should be sent
-     * @param sendDirect whether the data should be flushed too
+     * @param sendDirect whether the data should be flushed right away instead of at the end of the tick,
+     *                   which should only be used for latency-sensitive packets
      */
     public void sendPacket(final Packet packet, final boolean sendDirect) {
-        final Player player = this.server.getPlayerByAddress((InetSocketAddress) this.rakNetSession.remoteAddress());
+        packet.setProtocolVersion(this.protocolVersion);
+
+        // the packet is encoded right away, so that the scheduler knows its size and the caller may reuse it
+        this.enqueue(packet.encode(this.rakNetSession.alloc()), packet.getPacketPriority(), sendDirect);
+    }
+
+    /**
+     * Sends an already encoded {@link org.terracottamc.network.packet.Packet} to the client
+     * of the {@link org.terracottamc.entity.player.Player} without flushing the data too.
+     * The given {@link io.netty.buffer.ByteBuf} is released once it was written
+     *
+     * @param encodedPacket the {@link io.netty.buffer.ByteBuf} which holds the packet id and the payload
+     */
+    public void sendEncodedPacket(final ByteBuf encodedPacket) {
+        this.sendEncodedPacket(encodedPacket, PacketPriority.GAMEPLAY);
+    }
+
+    /**
+     * Sends an already encoded {@link org.terracottamc.network.packet.Packet} of the given priority class
+     * to the client of the {@link org.terracottamc.entity.player.Player} without flushing the data too.
+     * The given {@link io.netty.buffer.ByteBuf} is released once it was written
+     *
+     * @param encodedPacket  the {@link io.netty.buffer.ByteBuf} which holds the packet id and the payload
+     * @param packetPriority which represents the priority class of the packet
+     */
+    public void sendEncodedPacket(final ByteBuf encodedPacket, final PacketPriority packetPriority) {
+        if (encodedPacket != null) {
+            this.enqueue(encodedPacket, packetPriority, false);
+        }
+    }
+
+    /**
+     * Writes the queued packets, as far as the bandwidth budgets allow it, and flushes them as one batch
+     * to the client of the {@link org.terracottamc.entity.player.Player}.
+     * Packets which were held back are flushed with the next tick.
+     * The packets are always drained and written on the event loop of the RakNet session, so that a direct flush
+     * on the event loop cannot overtake the packets of a flush which was started on the main thread
+     */
+    public void flush() {
+        if (!this.rakNetSession.eventLoop().inEventLoop()) {
+            this.rakNetSession.eventLoop().execute(this::flush);
+
+            return;
+        }
+
+        this.flushScheduled.set(false);
+
+        final int batchSize = this.outboundPacketScheduler.drain();
+
+        if (this.outboundPacketScheduler.hasQueuedPackets() && this.flushScheduled.compareAndSet(false, true)) {
+            // the flush of the current tick may already be running, so that the retry has to wait for the next one
+            this.server.offerToMainThread(() -> this.server.scheduleFlush(this));
+        }
+
+        if (batchSize == 0) {
+            return;
+        }
+
+        this.flushCount.increment();
+        this.flushedPackets.add(batchSize);
+        this.lastBatchSize = batchSize;
+
+        if (this.flushStrategy == FlushStrategy.TICK) {
+            // the signal passes the pipeline behind the packets, so that exactly these packets form the batch
+            this.rakNetSession.writeAndFlush(PacketCompressor.BATCH_FLUSH_SIGNAL);
+        } else if (this.flushStrategy == FlushStrategy.IMMEDIATE) {
+            this.rakNetSession.flush();
+        }
+    }
+
+    /**
+     * Retrieves the {@link org.terracottamc.entity.player.OutboundPacketScheduler} which holds the packets
+     * of this connection until they are flushed
+     *
+     * @return a fresh {@link org.terracottamc.entity.player.OutboundPacketScheduler}
+     */
+    public OutboundPacketScheduler getOutboundPacketScheduler() {
+        return this.outboundPacketScheduler;
+    }
+
+    /**
+     * Retrieves how often the packets of this connection were flushed as a batch
+     *
+     * @return a fresh amount of flushes
+     */
+    public long getFlushCount() {
+        return this.flushCount.sum();
+    }
+
+    /**
+     * Retrieves the amount of packets which were flushed by this connection
+     *
+     * @return a fresh amount of packets
+     */
+    public long getFlushedPackets() {
+        return this.flushedPackets.sum();
+    }
+
+    /**
+     * Retrieves the amount of packets which were contained in the last flushed batch
+     *
+     * @return a fresh amount of packets
+     */
+    public int getLastBatchSize() {
+        return this.lastBatchSize;
+    }
+
+    /**
+     * Retrieves the average amount of packets which were contained in a flushed batch
+     *
+     * @return a fresh average batch size
+     */
+    public double getAverageBatchSize() {
+        final long flushCount = this.flushCount.sum();
+
+        return flushCount == 0 ? 0 : (double) this.flushedPackets.sum() / flushCount;
+    }
+
+    private void enqueue(final ByteBuf encodedPacket, final PacketPriority packetPriority,
+                         final boolean sendDirect) {
+        this.outboundPacketScheduler.enqueue(encodedPacket, packetPriority);
+
+        if (sendDirect || this.flushStrategy == FlushStrategy.IMMEDIATE) {
+            this.flush();
 
-        if (player != null) {
-            packet.setProtocolVersion(player.getLoginChainData().getProtocolVersion());
+            return;
         }
 
-        if (sendDirect) {
-            this.rakNetSession.writeAndFlush(packet);
-        } else {
-            this.rakNetSession.write(packet);
+        // the first packet of a tick schedules the flush, so that every connection is flushed once per tick
+        if (this.flushScheduled.compareAndSet(false, true)) {
+            this.server.scheduleFlush(this);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,233 @@
+package org.terracottamc.entity.player;
+
+import io.netty.channel.Channel;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class PlayerRegistry {
+
+    private final Object writeLock = new Object();
+
+    private volatile Snapshot snapshot = new Snapshot();
+
+    /**
+     * Adds the given {@link org.terracottamc.entity.player.Player} to all indices of this registry at once
+     *
+     * @param player who should be added
+     */
+    public void addPlayer(final Player player) {
+        synchronized (this.writeLock) {
+            final Snapshot snapshot = new Snapshot(this.snapshot);
+            snapshot.remove(player);
+            snapshot.add(player);
+            snapshot.seal();
+
+            this.snapshot = snapshot;
+        }
+    }
+
+    /**
+     * Removes the given {@link org.terracottamc.entity.player.Player} from all indices of this registry at once
+     *
+     * @param player who should be removed
+     *
+     * @return true, when the {@link org.terracottamc.entity.player.Player} was registered, otherwise false
+     */
+    public boolean removePlayer(final Player player) {
+        synchronized (this.writeLock) {
+            if (!this.snapshot.playersByChannel.containsKey(player.getPlayerNetworkConnection().getRakNetSession())) {
+                return false;
+            }
+
+            final Snapshot snapshot = new Snapshot(this.snapshot);
+            snapshot.remove(player);
+            snapshot.seal();
+
+            this.snapshot = snapshot;
+
+            return true;
+        }
+    }
+
+    /**
+     * Retrieves all registered players. The returned {@link java.util.List} is an immutable snapshot which is
+     * only replaced when a {@link org.terracottamc.entity.player.Player} joins or quits, so that iterating it
+     * neither allocates nor observes concurrent changes
+     *
+     * @return a fresh unmodifiable {@link java.util.List} of players
+     */
+    public List<Player> getPlayers() {
+        return this.snapshot.playerList;
+    }
+
+    /**
+     * Retrieves the amount of registered players
+     *
+     * @return a fresh amount of players
+     */
+    public int size() {
+        return this.snapshot.playerList.size();
+    }
+
+    /**
+     * Retrieves a {@link org.terracottamc.entity.player.Player} by its {@link java.net.InetSocketAddress}
+     *
+     * @param socketAddress which is used to retrieve the {@link org.terracottamc.entity.player.Player}
+     *
+     * @return a fresh {@link org.terracottamc.entity.player.Player} or null
+     */
+    public Player retrievePlayerByAddress(final InetSocketAddress socketAddress) {
+        return this.snapshot.playersByAddress.get(socketAddress);
+    }
+
+    /**
+     * Retrieves a {@link org.terracottamc.entity.player.Player} by its {@link java.util.UUID}
+     *
+     * @param uuid which is used to retrieve the {@link org.terracottamc.entity.player.Player}
+     *
+     * @return a fresh {@link org.terracottamc.entity.player.Player} or null
+     */
+    public Player retrievePlayerByUuid(final UUID uuid) {
+        return this.snapshot.playersByUuid.get(uuid);
+    }
+
+    /**
+     * Retrieves a {@link org.terracottamc.entity.player.Player} by its xbox account id
+     *
+     * @param xboxId which is used to retrieve the {@link org.terracottamc.entity.player.Player}
+     *
+     * @return a fresh {@link org.terracottamc.entity.player.Player} or null
+     */
+    public Player retrievePlayerByXboxId(final String xboxId) {
+        return this.snapshot.playersByXboxId.get(xboxId);
+    }
+
+    /**
+     * Retrieves a {@link org.terracottamc.entity.player.Player} by its name ignoring the case
+     *
+     * @param name which is used to retrieve the {@link org.terracottamc.entity.player.Player}
+     *
+     * @return a fresh {@link org.terracottamc.entity.player.Player} or null
+     */
+    public Player retrievePlayerByName(final String name) {
+        return this.snapshot.playersByName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Retrieves a {@link org.terracottamc.entity.player.Player} by its runtime entity id
+     *
+     * @param entityId which is used to retrieve the {@link org.terracottamc.entity.player.Player}
+     *
+     * @return a fresh {@link org.terracottamc.entity.player.Player} or null
+     */
+    public Player retrievePlayerByEntityId(final long entityId) {
+        return this.snapshot.playersByEntityId.get(entityId);
+    }
+
+    /**
+     * Retrieves a {@link org.terracottamc.entity.player.Player} by its RakNet session
+     *
+     * @param channel which is used to retrieve the {@link org.terracottamc.entity.player.Player}
+     *
+     * @return a fresh {@link org.terracottamc.entity.player.Player} or null
+     */
+    public Player retrievePlayerByChannel(final Channel channel) {
+        return this.snapshot.playersByChannel.get(channel);
+    }
+
+    /**
+     * Holds all indices of the registered players. A published snapshot is never modified again
+     */
+    private static class Snapshot {
+
+        private final Map<InetSocketAddress, Player> playersByAddress;
+        private final Map<UUID, Player> playersByUuid;
+        private final Map<String, Player> playersByXboxId;
+        private final Map<String, Player> playersByName;
+        private final Map<Long, Player> playersByEntityId;
+        private final Map<Channel, Player> playersByChannel;
+
+        private List<Player> playerList = Collections.emptyList();
+
+        private Snapshot() {
+            this.playersByAddress = new HashMap<>();
+            this.playersByUuid = new HashMap<>();
+            this.playersByXboxId = new HashMap<>();
+            this.playersByName = new HashMap<>();
+            this.playersByEntityId = new HashMap<>();
+            this.playersByChannel = new HashMap<>();
+        }
+
+        private Snapshot(final Snapshot snapshot) {
+            this.playersByAddress = new HashMap<>(snapshot.playersByAddress);
+            this.playersByUuid = new HashMap<>(snapshot.playersByUuid);
+            this.playersByXboxId = new HashMap<>(snapshot.playersByXboxId);
+            this.playersByName = new HashMap<>(snapshot.playersByName);
+            this.playersByEntityId = new HashMap<>(snapshot.playersByEntityId);
+            this.playersByChannel = new HashMap<>(snapshot.playersByChannel);
+        }
+
+        private void add(final Player player) {
+            final Channel channel = player.getPlayerNetworkConnection().getRakNetSession();
+
+            this.playersByAddress.put((InetSocketAddress) channel.remoteAddress(), player);
+            this.playersByChannel.put(channel, player);
+            this.playersByEntityId.put(player.getEntityId(), player);
+
+            if (player.getUuid() != null) {
+                this.playersByUuid.put(player.getUuid(), player);
+            }
+
+            if (player.getXboxId() != null) {
+                this.playersByXboxId.put(player.getXboxId(), player);
+            }
+
+            if (player.getName() != null) {
+                this.playersByName.put(player.getName().toLowerCase(Locale.ROOT), player);
+            }
+        }
+
+        private void remove(final Player player) {
+            final Channel channel = player.getPlayerNetworkConnection().getRakNetSession();
+
+            // only removes entries which still point to the given player
+            this.playersByAddress.remove((InetSocketAddress) channel.remoteAddress(), player);
+            this.playersByChannel.remove(channel, player);
+            this.playersByEntityId.remove(player.getEntityId(), player);
+
+            if (player.getUuid() != null) {
+                this.playersByUuid.remove(player.getUuid(), player);
+            }
+
+            if (player.getXboxId() != null) {
+                this.playersByXboxId.remove(player.getXboxId(), player);
+            }
+
+            if (player.getName() != null) {
+                this.playersByName.remove(player.getName().toLowerCase(Locale.ROOT), player);
+            }
+        }
+
+        private void seal() {
+            this.playerList = Collections.unmodifiableList(new ArrayList<>(this.playersByChannel.values()));
+        }
+    }
+}
@@ -1,6 +1,14 @@
 package org.terracottamc.entity.player.skin;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.terracottamc.util.BinaryStream;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
@@ -10,14 +18,15 @@ import java.util.UUID;
  */
 public class Skin {
 
-    private final String fullSkinId = UUID.randomUUID().toString();
+    private String fullSkinId = UUID.randomUUID().toString();
+    private String contentHash;
+    private ByteBuf encodedData;
 
-    private final List<SkinAnimation> skinAnimations = new ArrayList<>();
-    private final List<PersonaPiece> personaPieces = new ArrayList<>();
-    private final List<PersonaPieceTint> personaPieceTints = new ArrayList<>();
+    private List<SkinAnimation> skinAnimations = new ArrayList<>();
+    private List<PersonaPiece> personaPieces = new ArrayList<>();
+    private List<PersonaPieceTint> personaPieceTints = new ArrayList<>();
 
     private String skinId;
-    private String playFabId = "";
     private String resourcePatch;
     private String geometryData;
     private String animationData;
@@ -78,15 +87,6 @@ public class Skin {
         return this.skinId;
     }
 
-    /**
-     * Retrieves the play fab id of this {@link Skin}
-     *
-     * @return a fresh {@link String}
-     */
-    public String getPlayFabId() {
-        return this.playFabId;
-    }
-
     /**
      * Retrieves the resource patch of this {@link Skin}
      *
@@ -201,16 +201,9 @@ public class Skin {
      * @param skinId which should be modified
      */
     public void setSkinId(final String skinId) {
-        this.skinId = skinId;
-    }
+        this.checkModifiable();
 
-    /**
-     * Modifies the play fab id of this {@link Skin}
-     *
-     * @param playFabId which should be modified
-     */
-    public void setPlayFabId(final String playFabId) {
-        this.playFabId = playFabId;
+        this.skinId = skinId;
     }
 
     /**
@@ -219,6 +212,8 @@ public class Skin {
      * @param resourcePatch which should be modified
      */
     public void setResourcePatch(final String resourcePatch) {
+        this.checkModifiable();
+
         this.resourcePatch = resourcePatch;
     }
 
@@ -228,6 +223,8 @@ public class Skin {
      * @param geometryData which should be modified
      */
     public void setGeometryData(final String geometryData) {
+        this.checkModifiable();
+
         this.geometryData = geometryData;
     }
 
@@ -237,6 +234,8 @@ public class Skin {
      * @param animationData which should be modified
      */
     public void setAnimationData(final String animationData) {
+        this.checkModifiable();
+
         this.animationData = animationData;
     }
 
@@ -246,6 +245,8 @@ public class Skin {
      * @param capeId which should be modified
      */
     public void setCapeId(final String capeId) {
+        this.checkModifiable();
+
         this.capeId = capeId;
     }
 
@@ -255,6 +256,8 @@ public class Skin {
      * @param skinColor which should be modified
      */
     public void setSkinColor(final String skinColor) {
+        this.checkModifiable();
+
         this.skinColor = skinColor;
     }
 
@@ -264,6 +267,8 @@ public class Skin {
      * @param armSize which should be modified
      */
     public void setArmSize(final String armSize) {
+        this.checkModifiable();
+
         this.armSize = armSize;
     }
 
@@ -273,6 +278,8 @@ public class Skin {
      * @param skinData which should be modified
      */
     public void setSkinData(final SkinImage skinData) {
+        this.checkModifiable();
+
         this.skinData = skinData;
     }
 
@@ -282,6 +289,8 @@ public class Skin {
      * @param capeData which should be modified
      */
     public void setCapeData(final SkinImage capeData) {
+        this.checkModifiable();
+
         this.capeData = capeData;
     }
 
@@ -291,6 +300,8 @@ public class Skin {
      * @param premium which should be modified
      */
     public void setPremium(final boolean premium) {
+        this.checkModifiable();
+
         this.premium = premium;
     }
 
@@ -300,6 +311,8 @@ public class Skin {
      * @param persona which should be modified
      */
     public void setPersona(final boolean persona) {
+        this.checkModifiable();
+
         this.persona = persona;
     }
 
@@ -309,6 +322,8 @@ public class Skin {
      * @param capeOnClassic which should be modified
      */
     public void setCapeOnClassic(final boolean capeOnClassic) {
+        this.checkModifiable();
+
         this.capeOnClassic = capeOnClassic;
     }
 
@@ -320,4 +335,163 @@ public class Skin {
     public void setTrusted(final boolean trusted) {
         this.trusted = trusted;
     }
-}
\ No newline at end of file
+
+    /**
+     * Seals this {@link Skin}, so that it can be shared between players. The content is encoded once,
+     * the full skin id is derived from the content hash and the skin cannot be modified afterwards.
+     * The play fab id belongs to the account of a player and is therefore neither hashed nor encoded
+     */
+    public synchronized void seal() {
+        if (this.encodedData != null) {
+            return;
+        }
+
+        final BinaryStream contentStream = new BinaryStream();
+        contentStream.setBuffer(Unpooled.buffer());
+
+        try {
+            contentStream.writeString(Skin.valueOf(this.skinId));
+
+            this.encode(contentStream, "");
+
+            final byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(ByteBufUtil.getBytes(contentStream.getBuffer()));
+            final StringBuilder contentHash = new StringBuilder(digest.length * 2);
+
+            for (final byte digestByte : digest) {
+                contentHash.append(Character.forDigit((digestByte >> 4) & 0xF, 16))
+                        .append(Character.forDigit(digestByte & 0xF, 16));
+            }
+
+            this.contentHash = contentHash.toString();
+            this.fullSkinId = UUID.nameUUIDFromBytes(digest).toString();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            contentStream.release();
+        }
+
+        final BinaryStream encodedStream = new BinaryStream();
+        encodedStream.setBuffer(Unpooled.buffer());
+
+        this.encode(encodedStream, this.fullSkinId);
+
+        this.skinAnimations = Collections.unmodifiableList(this.skinAnimations);
+        this.personaPieces = Collections.unmodifiableList(this.personaPieces);
+        this.personaPieceTints = Collections.unmodifiableList(this.personaPieceTints);
+        this.encodedData = Unpooled.unreleasableBuffer(encodedStream.getBuffer().asReadOnly());
+    }
+
+    /**
+     * Proofs whether this {@link Skin} is sealed and therefore cannot be modified anymore
+     *
+     * @return whether this {@link Skin} is sealed
+     */
+    public boolean isSealed() {
+        return this.encodedData != null;
+    }
+
+    /**
+     * Retrieves the hash of the content of this {@link Skin}
+     *
+     * @return a fresh hexadecimal {@link String} or null, when this {@link Skin} is not sealed yet
+     */
+    public String getContentHash() {
+        return this.contentHash;
+    }
+
+    /**
+     * Retrieves the wire representation of this {@link Skin} behind the skin id and the play fab id,
+     * which was encoded when it was sealed
+     *
+     * @return a fresh read-only {@link ByteBuf} or null, when this {@link Skin} is not sealed yet
+     */
+    public ByteBuf getEncodedData() {
+        return this.encodedData != null ? this.encodedData.duplicate() : null;
+    }
+
+    /**
+     * Writes the wire representation of this {@link Skin} to the given {@link BinaryStream}
+     *
+     * @param binaryStream which should receive this {@link Skin}
+     * @param playFabId    which represents the play fab id of the player who wears this {@link Skin}
+     */
+    public void write(final BinaryStream binaryStream, final String playFabId) {
+        binaryStream.writeString(Skin.valueOf(this.skinId));
+        binaryStream.writeString(Skin.valueOf(playFabId));
+
+        if (this.encodedData != null) {
+            binaryStream.writeBytes(this.getEncodedData());
+        } else {
+            this.encode(binaryStream, this.fullSkinId);
+        }
+    }
+
+    private void encode(final BinaryStream binaryStream, final String fullSkinId) {
+        binaryStream.writeString(Skin.valueOf(this.resourcePatch));
+        Skin.writeImage(binaryStream, this.skinData);
+        binaryStream.writeIntLE(this.skinAnimations.size());
+
+        for (final SkinAnimation skinAnimation : this.skinAnimations) {
+            Skin.writeImage(binaryStream, skinAnimation.getSkinImage());
+            binaryStream.writeIntLE(skinAnimation.getType());
+            binaryStream.writeFloatLE(skinAnimation.getFrames());
+            binaryStream.writeIntLE(skinAnimation.getExpression());
+        }
+
+        Skin.writeImage(binaryStream, this.capeData);
+        binaryStream.writeString(Skin.valueOf(this.geometryData));
+        binaryStream.writeString(Skin.valueOf(this.animationData));
+        binaryStream.writeBoolean(this.premium);
+        binaryStream.writeBoolean(this.persona);
+        binaryStream.writeBoolean(this.capeOnClassic);
+        binaryStream.writeString(Skin.valueOf(this.capeId));
+        binaryStream.writeString(fullSkinId);
+        binaryStream.writeString(Skin.valueOf(this.armSize));
+        binaryStream.writeString(Skin.valueOf(this.skinColor));
+        binaryStream.writeIntLE(this.personaPieces.size());
+
+        for (final PersonaPiece personaPiece : this.personaPieces) {
+            binaryStream.writeString(Skin.valueOf(personaPiece.getPieceId()));
+            binaryStream.writeString(Skin.valueOf(personaPiece.getPieceType()));
+            binaryStream.writeString(Skin.valueOf(personaPiece.getPackId()));
+            binaryStream.writeBoolean(personaPiece.isDefault());
+            binaryStream.writeString(Skin.valueOf(personaPiece.getProductId()));
+        }
+
+        binaryStream.writeIntLE(this.personaPieceTints.size());
+
+        for (final PersonaPieceTint personaPieceTint : this.personaPieceTints) {
+            binaryStream.writeString(Skin.valueOf(personaPieceTint.getPieceType()));
+            binaryStream.writeIntLE(personaPieceTint.getColors().size());
+
+            for (final String color : personaPieceTint.getColors()) {
+                binaryStream.writeString(Skin.valueOf(color));
+            }
+        }
+    }
+
+    private void checkModifiable() {
+        if (this.encodedData != null) {
+            throw new IllegalStateException("The skin " + this.fullSkinId + " is sealed and cannot be modified");
+        }
+    }
+
+    private static void writeImage(final BinaryStream binaryStream, final SkinImage skinImage) {
+        if (skinImage == null) {
+            binaryStream.writeIntLE(0);
+            binaryStream.writeIntLE(0);
+            binaryStream.writeByteArray(new byte[0]);
+
+            return;
+        }
+
+        binaryStream.writeIntLE(skinImage.getWidth());
+        binaryStream.writeIntLE(skinImage.getHeight());
+        binaryStream.writeByteArray(skinImage.getData());
+    }
+
+    private static String valueOf(final String value) {
+        return value != null ? value : "";
+    }
+}
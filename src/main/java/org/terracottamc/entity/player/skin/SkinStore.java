@@ -0,0 +1,105 @@
+package org.terracottamc.entity.player.skin;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class SkinStore {
+
+    private final Map<String, SkinEntry> skins = new HashMap<>();
+
+    private long deduplicatedSkins;
+
+    /**
+     * Acquires the shared instance of the given {@link org.terracottamc.entity.player.skin.Skin}.
+     * When a skin with the same content is already stored, its instance is returned and the given one
+     * can be collected, otherwise the given skin is sealed and stored
+     *
+     * @param skin which should be acquired
+     *
+     * @return a fresh sealed {@link org.terracottamc.entity.player.skin.Skin}
+     */
+    public Skin acquire(final Skin skin) {
+        // sealing hashes and encodes the whole skin, so that it is done before the store is locked
+        skin.seal();
+
+        synchronized (this.skins) {
+            final SkinEntry skinEntry = this.skins.get(skin.getContentHash());
+
+            if (skinEntry != null) {
+                skinEntry.references++;
+
+                this.deduplicatedSkins++;
+
+                return skinEntry.skin;
+            }
+
+            this.skins.put(skin.getContentHash(), new SkinEntry(skin));
+
+            return skin;
+        }
+    }
+
+    /**
+     * Releases a {@link org.terracottamc.entity.player.skin.Skin} which was acquired before.
+     * The skin is evicted from this store once nobody uses it anymore
+     *
+     * @param skin which should be released
+     */
+    public void release(final Skin skin) {
+        if (skin.getContentHash() == null) {
+            return;
+        }
+
+        synchronized (this.skins) {
+            final SkinEntry skinEntry = this.skins.get(skin.getContentHash());
+
+            if (skinEntry != null && skinEntry.skin == skin && --skinEntry.references == 0) {
+                this.skins.remove(skin.getContentHash());
+            }
+        }
+    }
+
+    /**
+     * Retrieves the amount of distinct skins which are currently stored
+     *
+     * @return a fresh amount of skins
+     */
+    public int size() {
+        synchronized (this.skins) {
+            return this.skins.size();
+        }
+    }
+
+    /**
+     * Retrieves how often an acquired skin was replaced by an already stored instance
+     *
+     * @return a fresh amount of deduplicated skins
+     */
+    public long getDeduplicatedSkins() {
+        synchronized (this.skins) {
+            return this.deduplicatedSkins;
+        }
+    }
+
+    private static class SkinEntry {
+
+        private final Skin skin;
+
+        private int references = 1;
+
+        private SkinEntry(final Skin skin) {
+            this.skin = skin;
+        }
+    }
+}
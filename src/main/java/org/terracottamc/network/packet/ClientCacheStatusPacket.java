@@ -27,6 +27,13 @@ public class ClientCacheStatusPacket extends Packet {
         this.supported = this.readBoolean();
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+
+        this.supported = false;
+    }
+
     /**
      * Retrieves whether the client cache status is supported
      *
@@ -0,0 +1,20 @@
+package org.terracottamc.network.packet;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class ClientToServerHandshakePacket extends Packet {
+
+    @Override
+    public int getPacketId() {
+        return Protocol.CLIENT_TO_SERVER_HANDSHAKE_PACKET;
+    }
+}
@@ -82,7 +82,8 @@ public class CreativeContentPacket extends Packet {
                 this.writeVarInt(blockRuntimeId);
 
                 final ByteBuf userData = ByteBufAllocator.DEFAULT.ioBuffer();
-                final BinaryStream userDataStream = new BinaryStream(userData);
+                final BinaryStream userDataStream = new BinaryStream();
+                userDataStream.setBuffer(userData);
 
                 try (final ByteBufOutputStream byteBufOutputStream = new ByteBufOutputStream(userData)) {
                     if (itemNBTData.length > 0) {
@@ -122,6 +123,8 @@ public class CreativeContentPacket extends Packet {
                     this.writeBytes(userData);
                 } catch (final IOException e) {
                     e.printStackTrace();
+                } finally {
+                    userDataStream.release();
                 }
             }
         }
@@ -0,0 +1,24 @@
+package org.terracottamc.network.packet;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class DecodingLimitException extends RuntimeException {
+
+    /**
+     * Creates a new {@link org.terracottamc.network.packet.DecodingLimitException}
+     *
+     * @param message which describes the exceeded limit
+     */
+    public DecodingLimitException(final String message) {
+        super(message);
+    }
+}
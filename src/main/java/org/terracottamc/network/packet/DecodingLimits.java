@@ -0,0 +1,195 @@
+package org.terracottamc.network.packet;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class DecodingLimits {
+
+    private final int[] maxPacketSizes = new int[0x400];
+    private final int maxStringLength;
+    private final int maxByteArrayLength;
+    private final int maxListSize;
+    private int maxDecompressedBatchSize = Integer.MAX_VALUE;
+    private int maxPacketsPerBatch = Integer.MAX_VALUE;
+    private final LongAdder violations = new LongAdder();
+    private final AtomicLongArray violationsByPacketId = new AtomicLongArray(0x400);
+
+    /**
+     * Creates new {@link org.terracottamc.network.packet.DecodingLimits}
+     *
+     * @param maxPacketSize      which represents the amount of bytes a received packet may have,
+     *                           unless its type has its own limit
+     * @param maxStringLength    which represents the amount of bytes a received string may have
+     * @param maxByteArrayLength which represents the amount of bytes a received byte array may have
+     * @param maxListSize        which represents the amount of elements a received list may have
+     */
+    public DecodingLimits(final int maxPacketSize, final int maxStringLength, final int maxByteArrayLength,
+                          final int maxListSize) {
+        this.maxStringLength = maxStringLength;
+        this.maxByteArrayLength = maxByteArrayLength;
+        this.maxListSize = maxListSize;
+
+        Arrays.fill(this.maxPacketSizes, maxPacketSize);
+    }
+
+    /**
+     * Updates the amount of bytes a received packet with the given id may have
+     *
+     * @param packetId      which represents the id of the packet type
+     * @param maxPacketSize which represents the updated value
+     *
+     * @return these {@link org.terracottamc.network.packet.DecodingLimits}
+     */
+    public DecodingLimits setMaxPacketSize(final int packetId, final int maxPacketSize) {
+        this.maxPacketSizes[packetId & 0x3FF] = maxPacketSize;
+
+        return this;
+    }
+
+    /**
+     * Updates the amount of bytes a received batch may have after it was decompressed
+     *
+     * @param maxDecompressedBatchSize which represents the updated value
+     *
+     * @return these {@link org.terracottamc.network.packet.DecodingLimits}
+     */
+    public DecodingLimits setMaxDecompressedBatchSize(final int maxDecompressedBatchSize) {
+        this.maxDecompressedBatchSize = maxDecompressedBatchSize;
+
+        return this;
+    }
+
+    /**
+     * Updates the amount of packets a received batch may contain
+     *
+     * @param maxPacketsPerBatch which represents the updated value
+     *
+     * @return these {@link org.terracottamc.network.packet.DecodingLimits}
+     */
+    public DecodingLimits setMaxPacketsPerBatch(final int maxPacketsPerBatch) {
+        this.maxPacketsPerBatch = maxPacketsPerBatch;
+
+        return this;
+    }
+
+    /**
+     * Checks whether a received packet with the given id and size is within its limit
+     *
+     * @param packetId   which represents the id of the packet
+     * @param packetSize which represents the size of the packet in bytes
+     *
+     * @throws org.terracottamc.network.packet.DecodingLimitException when the packet is too large
+     */
+    public void checkPacketSize(final int packetId, final int packetSize) {
+        if (packetSize > this.maxPacketSizes[packetId & 0x3FF]) {
+            throw this.violation(packetId, "The packet 0x" + Integer.toHexString(packetId) + " has " + packetSize +
+                    " bytes, but at most " + this.maxPacketSizes[packetId & 0x3FF] + " bytes are allowed");
+        }
+    }
+
+    /**
+     * Creates a {@link org.terracottamc.network.packet.DecodingLimitException} and counts the violation
+     *
+     * @param packetId which represents the id of the packet that violated a limit or -1, when it is unknown
+     * @param message  which describes the exceeded limit
+     *
+     * @return a fresh {@link org.terracottamc.network.packet.DecodingLimitException} which should be thrown
+     */
+    public DecodingLimitException violation(final int packetId, final String message) {
+        this.violations.increment();
+
+        if (packetId >= 0) {
+            this.violationsByPacketId.incrementAndGet(packetId & 0x3FF);
+        }
+
+        return new DecodingLimitException(message);
+    }
+
+    /**
+     * Retrieves the amount of bytes a received packet with the given id may have
+     *
+     * @param packetId which represents the id of the packet type
+     *
+     * @return a fresh amount of bytes
+     */
+    public int getMaxPacketSize(final int packetId) {
+        return this.maxPacketSizes[packetId & 0x3FF];
+    }
+
+    /**
+     * Retrieves the amount of bytes a received string may have
+     *
+     * @return a fresh amount of bytes
+     */
+    public int getMaxStringLength() {
+        return this.maxStringLength;
+    }
+
+    /**
+     * Retrieves the amount of bytes a received byte array may have
+     *
+     * @return a fresh amount of bytes
+     */
+    public int getMaxByteArrayLength() {
+        return this.maxByteArrayLength;
+    }
+
+    /**
+     * Retrieves the amount of elements a received list may have
+     *
+     * @return a fresh amount of elements
+     */
+    public int getMaxListSize() {
+        return this.maxListSize;
+    }
+
+    /**
+     * Retrieves the amount of bytes a received batch may have after it was decompressed
+     *
+     * @return a fresh amount of bytes
+     */
+    public int getMaxDecompressedBatchSize() {
+        return this.maxDecompressedBatchSize;
+    }
+
+    /**
+     * Retrieves the amount of packets a received batch may contain
+     *
+     * @return a fresh amount of packets
+     */
+    public int getMaxPacketsPerBatch() {
+        return this.maxPacketsPerBatch;
+    }
+
+    /**
+     * Retrieves the amount of received packets which exceeded a limit
+     *
+     * @return a fresh amount of violations
+     */
+    public long getViolations() {
+        return this.violations.sum();
+    }
+
+    /**
+     * Retrieves how often a received packet with the given id exceeded a limit
+     *
+     * @param packetId which is used to retrieve the amount
+     *
+     * @return a fresh amount of violations
+     */
+    public long getViolations(final int packetId) {
+        return this.violationsByPacketId.get(packetId & 0x3FF);
+    }
+}
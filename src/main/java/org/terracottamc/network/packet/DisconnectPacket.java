@@ -21,6 +21,11 @@ public class DisconnectPacket extends Packet {
         return Protocol.DISCONNECT_PACKET;
     }
 
+    @Override
+    public PacketPriority getPacketPriority() {
+        return PacketPriority.CONTROL;
+    }
+
     @Override
     public void serialize() {
         super.serialize();
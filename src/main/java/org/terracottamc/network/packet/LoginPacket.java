@@ -5,6 +5,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import lombok.ToString;
 import org.terracottamc.entity.player.info.DeviceInfo;
 import org.terracottamc.entity.player.info.DeviceOs;
@@ -16,16 +17,20 @@ import org.terracottamc.entity.player.skin.PersonaPieceTint;
 import org.terracottamc.entity.player.skin.Skin;
 import org.terracottamc.entity.player.skin.SkinAnimation;
 import org.terracottamc.entity.player.skin.SkinImage;
+import org.terracottamc.network.security.EncryptionHandshake;
 import org.terracottamc.network.security.MojangSecurityDecryptionHelper;
 import org.terracottamc.network.security.jwt.Jwt;
 import org.terracottamc.network.security.jwt.JwtEncryptionAlgorithm;
 import org.terracottamc.network.security.jwt.JwtHeader;
 import org.terracottamc.network.security.jwt.JwtSignature;
+import org.terracottamc.network.security.jwt.StreamingJwt;
 import org.terracottamc.server.Server;
-import org.terracottamc.util.BinaryStream;
 
+import java.io.IOException;
 import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.PublicKey;
 import java.security.interfaces.ECPublicKey;
 import java.util.ArrayList;
@@ -40,8 +45,6 @@ import java.util.UUID;
 @ToString
 public class LoginPacket extends Packet {
 
-    private int protocolVersion;
-
     private String username;
     private String xboxId;
     private UUID uuid;
@@ -54,8 +57,15 @@ public class LoginPacket extends Packet {
     private String serverAddress;
     private String thirdPartyName;
     private boolean thirdPartyNameOnly;
+    private String playFabId = "";
     private Skin skin;
     private ECPublicKey clientPublicKey;
+    private EncryptionHandshake encryptionHandshake;
+
+    private long parseTime;
+    private long verificationTime;
+    private long skinDecodeTime;
+    private long handshakeTime;
 
     @Override
     public int getPacketId() {
@@ -68,9 +78,19 @@ public class LoginPacket extends Packet {
 
         this.protocolVersion = this.readInt();
 
-        final BinaryStream binaryStream = new BinaryStream(this.getBuffer());
+        // continues on a slice of the login data, the previous buffer is released by setting the slice
+        this.setBuffer(this.getBuffer().readRetainedSlice(this.checkLength(this.readUnsignedVarInt(),
+                Integer.MAX_VALUE, "login data")));
+    }
 
-        this.setBuffer(this.readBytes(binaryStream.readUnsignedVarInt()));
+    /**
+     * Decodes and verifies the login data, which is left undecoded by
+     * {@link org.terracottamc.network.packet.LoginPacket#deserialize()}, so that the protocol version can be
+     * checked before. This parses the whole chain, verifies its signatures and decodes the skin,
+     * which is why it is run by the {@link org.terracottamc.network.security.LoginVerificationExecutor}
+     */
+    public void decodeLoginData() {
+        final long startTime = System.nanoTime();
 
         final String jsonWebToken = this.readString();
         final JsonObject jwtData = new JsonParser()
@@ -93,6 +113,8 @@ public class LoginPacket extends Packet {
                         .equalsIgnoreCase("Mojang") && jwtPayload.has("identityPublicKey") &&
                         jwtPayload.has("extraData") &&
                         jwtPayload.get("exp").getAsLong() < System.currentTimeMillis()) {
+                    final long verificationStartTime = System.nanoTime();
+
                     this.clientPublicKey = Server.getInstance().getMojangSecurityDecryptionHelper()
                             .generateMojangIdentityPublicKey(jwtPayload.get("identityPublicKey").getAsString());
 
@@ -100,8 +122,19 @@ public class LoginPacket extends Packet {
                             .generatePublicKey(jwtHeader.getHeaderData().get("x5u").getAsString());
                     final JwtEncryptionAlgorithm jwtEncryptionAlgorithm = jwtHeader.getJwtEncryptionAlgorithm();
                     final JwtSignature jwtSignature = jwtEncryptionAlgorithm.getJwtSignature();
+                    final boolean validSignature = jwtSignature.isValid(publicKey, jwt.getSignatureData(),
+                            jwt.getSignatureDigest());
+
+                    if (validSignature && publicKey.equals(Server.getInstance().getMojangSecurityDecryptionHelper()
+                            .getMojangRootKey())) {
+                        // the key which was signed by the root key is an intermediate key of mojang
+                        Server.getInstance().getMojangSecurityKeyFactory()
+                                .generatePublicKey(jwtPayload.get("identityPublicKey").getAsString(), true);
+                    }
+
+                    this.verificationTime += System.nanoTime() - verificationStartTime;
 
-                    if (jwtSignature.isValid(publicKey, jwt.getSignatureData(), jwt.getSignatureDigest())) {
+                    if (validSignature) {
                         break;
                     }
                 }
@@ -128,217 +161,64 @@ public class LoginPacket extends Packet {
                     this.username = extraData.get("displayName").getAsString();
                 }
 
-                final String skinJwtRaw = this.readString();
-                final Jwt skinJwt = Jwt.read(skinJwtRaw);
+                // the client data token is viewed in place, because it holds the skin which can be megabytes large
+                final StreamingJwt skinJwt = StreamingJwt.read(this.getBuffer()
+                        .readSlice(this.checkLength(this.readIntLE(), Integer.MAX_VALUE, "client data")));
 
                 if (skinJwt != null) {
                     final JwtHeader skinJwtHeader = skinJwt.getJwtHeader();
 
                     if (skinJwtHeader.isValid()) {
+                        final long verificationStartTime = System.nanoTime();
+
                         final PublicKey publicKey = Server.getInstance().getMojangSecurityKeyFactory()
                                 .generatePublicKey(skinJwtHeader.getHeaderData().get("x5u").getAsString());
                         final JwtSignature skinJwtSignature = skinJwt.getJwtHeader().getJwtEncryptionAlgorithm()
                                 .getJwtSignature();
+                        final boolean validSignature = skinJwtSignature.isValid(publicKey,
+                                skinJwt.getSignatureData(), skinJwt.getSignatureDigest());
 
-                        if (skinJwtSignature.isValid(publicKey, skinJwt.getSignatureData(), skinJwt.getSignatureDigest())) {
-                            final JsonObject skinJwtPayload = skinJwt.getJwtPayload();
-
-                            // DeviceInfo
-                            if (skinJwtPayload.has("ClientRandomId") &&
-                                    skinJwtPayload.has("CurrentInputMode") &&
-                                    skinJwtPayload.has("DefaultInputMode") &&
-                                    skinJwtPayload.has("DeviceId") &&
-                                    skinJwtPayload.has("DeviceModel") &&
-                                    skinJwtPayload.has("DeviceOS") &&
-                                    skinJwtPayload.has("GuiScale") &&
-                                    skinJwtPayload.has("UIProfile")) {
-                                final String deviceName = skinJwtPayload.get("DeviceModel").getAsString();
-                                final String deviceId = skinJwtPayload.get("DeviceId").getAsString();
-                                final long clientId = skinJwtPayload.get("ClientRandomId").getAsLong();
-                                final int deviceOsId = skinJwtPayload.get("DeviceOS").getAsInt();
-                                final int guiScaleId = skinJwtPayload.get("GuiScale").getAsInt();
-                                final int uiProfileId = skinJwtPayload.get("UIProfile").getAsInt();
-                                final int currentInputHardwareId = skinJwtPayload.get("CurrentInputMode").getAsInt();
-                                final int defaultInputHardwareId = skinJwtPayload.get("DefaultInputMode").getAsInt();
-
-                                final DeviceOs deviceOs = DeviceOs.retrieveDeviceOsById(deviceOsId);
-                                final GUIScale guiScale = GUIScale.retrieveGUIScaleById(guiScaleId);
-                                final UIProfile uiProfile = UIProfile.retrieveUIProfileById(uiProfileId);
-                                final InputHardware currentInputHardware = InputHardware
-                                        .retrieveInputHardwareById(currentInputHardwareId);
-                                final InputHardware defaultInputHardware = InputHardware
-                                        .retrieveInputHardwareById(defaultInputHardwareId);
-
-                                this.deviceInfo = new DeviceInfo(deviceName, deviceId, clientId, deviceOs, guiScale,
-                                        uiProfile, currentInputHardware, defaultInputHardware);
-                            }
-
-                            // LoginChainInfo
-                            if (skinJwtPayload.has("GameVersion")) {
-                                this.gameVersion = skinJwtPayload.get("GameVersion").getAsString();
-                            }
-
-                            if (skinJwtPayload.has("LanguageCode")) {
-                                this.languageCode = skinJwtPayload.get("LanguageCode").getAsString();
-                            }
-
-                            if (skinJwtPayload.has("PlatformOfflineId")) {
-                                this.platformOfflineId = skinJwtPayload.get("PlatformOfflineId").getAsString();
-                            }
-
-                            if (skinJwtPayload.has("PlatformOnlineId")) {
-                                this.platformOnlineId = skinJwtPayload.get("PlatformOnlineId").getAsString();
-                            }
-
-                            if (skinJwtPayload.has("SelfSignedId")) {
-                                this.selfSignedId = skinJwtPayload.get("SelfSignedId").getAsString();
-                            }
-
-                            if (skinJwtPayload.has("ServerAddress")) {
-                                this.serverAddress = skinJwtPayload.get("ServerAddress").getAsString();
-                            }
-
-                            if (skinJwtPayload.has("ThirdPartyName")) {
-                                this.thirdPartyName = skinJwtPayload.get("ThirdPartyName").getAsString();
-                            }
-
-                            if (skinJwtPayload.has("ThirdPartyNameOnly")) {
-                                this.thirdPartyNameOnly = skinJwtPayload.get("ThirdPartyNameOnly").getAsBoolean();
-                            }
-
-                            // SkinInfo
-                            this.skin = new Skin();
-
-                            if (skinJwtPayload.has("AnimatedImageData")) {
-                                final JsonArray skinAnimatedData = skinJwtPayload.getAsJsonArray("AnimatedImageData");
-
-                                for (final JsonElement animationDataElement : skinAnimatedData) {
-                                    final JsonObject animationData = animationDataElement.getAsJsonObject();
-
-                                    final byte[] skinImageData = Base64.getDecoder()
-                                            .decode(animationData.get("Image").getAsString());
-                                    final int skinImageWidth = animationData.get("ImageWidth").getAsInt();
-                                    final int skinImageHeight = animationData.get("ImageHeight").getAsInt();
-                                    final int type = animationData.get("Type").getAsInt();
-                                    final float frames = animationData.get("Frames").getAsFloat();
-                                    final int expression = animationData.get("AnimationExpression").getAsInt();
-
-                                    final SkinAnimation skinAnimation = new SkinAnimation(new SkinImage(skinImageWidth,
-                                            skinImageHeight, skinImageData), type, frames, expression);
-
-                                    this.skin.getSkinAnimations().add(skinAnimation);
-                                }
-                            }
-
-                            if (skinJwtPayload.has("ArmSize")) {
-                                this.skin.setArmSize(skinJwtPayload.get("ArmSize").getAsString());
-                            }
-
-                            if (skinJwtPayload.has("CapeData")) {
-                                this.skin.setCapeData(this.retrieveSkinImage(skinJwtPayload, "Cape"));
-                            }
-
-                            if (skinJwtPayload.has("CapeId")) {
-                                this.skin.setCapeId(skinJwtPayload.get("CapeId").getAsString());
-                            }
-
-                            if (skinJwtPayload.has("CapeOnClassicSkin")) {
-                                this.skin.setCapeOnClassic(skinJwtPayload.get("CapeOnClassicSkin").getAsBoolean());
-                            }
-
-                            if (skinJwtPayload.has("PersonaPieces")) {
-                                final JsonArray personaPieces = skinJwtPayload.getAsJsonArray("PersonaPieces");
-
-                                for (final JsonElement personaPieceElement : personaPieces) {
-                                    final JsonObject personaPieceData = personaPieceElement.getAsJsonObject();
-
-                                    final String pieceId = personaPieceData.get("PieceId").getAsString();
-                                    final String pieceType = personaPieceData.get("PieceType").getAsString();
-                                    final String packId = personaPieceData.get("PackId").getAsString();
-                                    final String productId = personaPieceData.get("ProductId").getAsString();
-                                    final boolean isDefault = personaPieceData.get("IsDefault").getAsBoolean();
-
-                                    final PersonaPiece personaPiece = new PersonaPiece(pieceId, pieceType, packId,
-                                            productId, isDefault);
+                        this.verificationTime += System.nanoTime() - verificationStartTime;
 
-                                    this.skin.getPersonaPieces().add(personaPiece);
-                                }
-                            }
-
-                            if (skinJwtPayload.has("PersonaSkin")) {
-                                this.skin.setPersona(skinJwtPayload.get("PersonaSkin").getAsBoolean());
-                            }
-
-                            if (skinJwtPayload.has("PieceTintColors")) {
-                                final JsonArray personaPieceTints = skinJwtPayload.getAsJsonArray("PieceTintColors");
-
-                                for (final JsonElement personaPieceTintElement : personaPieceTints) {
-                                    final JsonObject personaPieceTintData = personaPieceTintElement.getAsJsonObject();
-
-                                    final String pieceType = personaPieceTintData.get("PieceType").getAsString();
-                                    final List<String> colors = new ArrayList<>();
-
-                                    for (final JsonElement colorElement : personaPieceTintData.get("Colors")
-                                            .getAsJsonArray()) {
-                                        colors.add(colorElement.getAsString());
-                                    }
-
-                                    final PersonaPieceTint personaPieceTint = new PersonaPieceTint(pieceType, colors);
-
-                                    this.skin.getPersonaPieceTints().add(personaPieceTint);
-                                }
-                            }
-
-                            if (skinJwtPayload.has("PlayFabId")) {
-                                this.skin.setPlayFabId(skinJwtPayload.get("PlayFabId").getAsString());
-                            }
+                        if (validSignature) {
+                            final long skinDecodeStartTime = System.nanoTime();
 
-                            if (skinJwtPayload.has("PremiumSkin")) {
-                                this.skin.setPremium(skinJwtPayload.get("PremiumSkin").getAsBoolean());
+                            try (final JsonReader jsonReader = skinJwt.openPayloadReader()) {
+                                this.readClientData(jsonReader);
+                            } catch (final IOException e) {
+                                throw new UncheckedIOException("The client data could not be read", e);
                             }
 
-                            if (skinJwtPayload.has("SkinAnimationData")) {
-                                final byte[] animationData = Base64.getDecoder()
-                                        .decode(skinJwtPayload.get("SkinAnimationData").getAsString());
-
-                                this.skin.setAnimationData(new String(animationData));
-                            }
-
-                            if (skinJwtPayload.has("SkinColor")) {
-                                this.skin.setSkinColor(skinJwtPayload.get("SkinColor").getAsString());
-                            }
-
-                            if (skinJwtPayload.has("SkinData")) {
-                                this.skin.setSkinData(this.retrieveSkinImage(skinJwtPayload, "Skin"));
-                            }
-
-                            if (skinJwtPayload.has("SkinGeometryData")) {
-                                final byte[] geometryData = Base64.getDecoder()
-                                        .decode(skinJwtPayload.get("SkinGeometryData").getAsString());
-
-                                this.skin.setGeometryData(new String(geometryData));
-                            }
-
-                            if (skinJwtPayload.has("SkinId")) {
-                                this.skin.setSkinId(skinJwtPayload.get("SkinId").getAsString());
-                            }
-
-                            if (skinJwtPayload.has("SkinResourcePatch")) {
-                                final byte[] resourcePatch = Base64.getDecoder()
-                                        .decode(skinJwtPayload.get("SkinResourcePatch").getAsString());
-
-                                this.skin.setResourcePatch(new String(resourcePatch));
-                            }
+                            this.skinDecodeTime = System.nanoTime() - skinDecodeStartTime;
                         }
                     }
                 }
             }
         }
+
+        this.parseTime = System.nanoTime() - startTime - this.verificationTime - this.skinDecodeTime;
+    }
+
+    /**
+     * Creates the {@link org.terracottamc.network.security.EncryptionHandshake} for the public key of the client,
+     * which was read by {@link org.terracottamc.network.packet.LoginPacket#decodeLoginData()}
+     *
+     * @throws java.security.GeneralSecurityException when the key exchange fails
+     */
+    public void createEncryptionHandshake() throws GeneralSecurityException {
+        if (this.clientPublicKey == null) {
+            return;
+        }
+
+        final long startTime = System.nanoTime();
+
+        this.encryptionHandshake = EncryptionHandshake.create(this.clientPublicKey);
+        this.handshakeTime = System.nanoTime() - startTime;
     }
 
     @Override
     public String readString() {
-        final byte[] bytes = new byte[this.readIntLE()];
+        final byte[] bytes = new byte[this.checkLength(this.readIntLE(), Integer.MAX_VALUE, "string")];
 
         this.readBytes(bytes);
 
@@ -354,6 +234,45 @@ public class LoginPacket extends Packet {
         return this.protocolVersion;
     }
 
+    /**
+     * Retrieves the time in nanoseconds which was spent parsing the login data, excluding the signature
+     * verification and the skin decoding
+     *
+     * @return a fresh time in nanoseconds
+     */
+    public long getParseTime() {
+        return this.parseTime;
+    }
+
+    /**
+     * Retrieves the time in nanoseconds which was spent creating the public keys and verifying the signatures
+     * of the login data
+     *
+     * @return a fresh time in nanoseconds
+     */
+    public long getVerificationTime() {
+        return this.verificationTime;
+    }
+
+    /**
+     * Retrieves the time in nanoseconds which was spent decoding the skin of the login data
+     *
+     * @return a fresh time in nanoseconds
+     */
+    public long getSkinDecodeTime() {
+        return this.skinDecodeTime;
+    }
+
+    /**
+     * Retrieves the time in nanoseconds which was spent creating the
+     * {@link org.terracottamc.network.security.EncryptionHandshake}
+     *
+     * @return a fresh time in nanoseconds
+     */
+    public long getHandshakeTime() {
+        return this.handshakeTime;
+    }
+
     /**
      * Retrieves the username of this {@link org.terracottamc.network.packet.LoginPacket}
      *
@@ -463,6 +382,15 @@ public class LoginPacket extends Packet {
         return this.thirdPartyNameOnly;
     }
 
+    /**
+     * Retrieves the play fab id of this {@link org.terracottamc.network.packet.LoginPacket}
+     *
+     * @return a fresh {@link java.lang.String}
+     */
+    public String getPlayFabId() {
+        return this.playFabId;
+    }
+
     /**
      * Returns the {@link org.terracottamc.entity.player.skin.Skin}
      * of this {@link org.terracottamc.network.packet.LoginPacket}
@@ -483,29 +411,343 @@ public class LoginPacket extends Packet {
         return this.clientPublicKey;
     }
 
+    /**
+     * Retrieves the {@link org.terracottamc.network.security.EncryptionHandshake} which was created for the client
+     *
+     * @return a fresh {@link org.terracottamc.network.security.EncryptionHandshake} or null,
+     * when the encryption is disabled
+     */
+    public EncryptionHandshake getEncryptionHandshake() {
+        return this.encryptionHandshake;
+    }
+
     /**
      * Creates a {@link org.terracottamc.entity.player.skin.SkinImage}
      * optimized for the skin data and cape data of this {@link org.terracottamc.network.packet.LoginPacket}
      *
-     * @param skinInfo which represents the skin {@link java.util.Map} to work with
-     * @param dataType that is the type which can be specified for example: Cape and Skin
+     * @param imageData which represents the decoded image
+     * @param width     which represents the width of the image or -1, when it was not sent
+     * @param height    which represents the height of the image or -1, when it was not sent
      *
      * @return a fresh {@link org.terracottamc.entity.player.skin.SkinImage}
      */
-    private SkinImage retrieveSkinImage(final JsonObject skinInfo, final String dataType) {
-        if (skinInfo.has(dataType + "Data")) {
-            final byte[] skinImageData = Base64.getDecoder().decode(skinInfo.get(dataType + "Data").getAsString());
+    private SkinImage createSkinImage(final byte[] imageData, final int width, final int height) {
+        if (width != -1 && height != -1) {
+            return new SkinImage(width, height, imageData);
+        }
+
+        return SkinImage.getImage(imageData);
+    }
+
+    /**
+     * Reads the client data, which holds the device information and the skin, field by field from the given
+     * {@link com.google.gson.stream.JsonReader}, so that neither the whole payload nor a tree of it is kept in memory.
+     * Unknown fields are skipped without being materialized
+     *
+     * @param jsonReader which reads the decoded payload of the client data token
+     *
+     * @throws java.io.IOException when the payload is malformed
+     */
+    private void readClientData(final JsonReader jsonReader) throws IOException {
+        String deviceName = null;
+        String deviceId = null;
+        Long clientId = null;
+        Integer deviceOsId = null;
+        Integer guiScaleId = null;
+        Integer uiProfileId = null;
+        Integer currentInputHardwareId = null;
+        Integer defaultInputHardwareId = null;
+
+        byte[] skinImageData = null;
+        byte[] capeImageData = null;
+        int skinImageWidth = -1;
+        int skinImageHeight = -1;
+        int capeImageWidth = -1;
+        int capeImageHeight = -1;
+
+        this.skin = new Skin();
+
+        jsonReader.beginObject();
+
+        while (jsonReader.hasNext()) {
+            final String name = jsonReader.nextName();
+
+            if (jsonReader.peek() == JsonToken.NULL) {
+                jsonReader.skipValue();
+
+                continue;
+            }
+
+            switch (name) {
+                // DeviceInfo
+                case "ClientRandomId":
+                    clientId = jsonReader.nextLong();
+                    break;
+                case "CurrentInputMode":
+                    currentInputHardwareId = jsonReader.nextInt();
+                    break;
+                case "DefaultInputMode":
+                    defaultInputHardwareId = jsonReader.nextInt();
+                    break;
+                case "DeviceId":
+                    deviceId = jsonReader.nextString();
+                    break;
+                case "DeviceModel":
+                    deviceName = jsonReader.nextString();
+                    break;
+                case "DeviceOS":
+                    deviceOsId = jsonReader.nextInt();
+                    break;
+                case "GuiScale":
+                    guiScaleId = jsonReader.nextInt();
+                    break;
+                case "UIProfile":
+                    uiProfileId = jsonReader.nextInt();
+                    break;
+                // LoginChainInfo
+                case "GameVersion":
+                    this.gameVersion = jsonReader.nextString();
+                    break;
+                case "LanguageCode":
+                    this.languageCode = jsonReader.nextString();
+                    break;
+                case "PlatformOfflineId":
+                    this.platformOfflineId = jsonReader.nextString();
+                    break;
+                case "PlatformOnlineId":
+                    this.platformOnlineId = jsonReader.nextString();
+                    break;
+                case "SelfSignedId":
+                    this.selfSignedId = jsonReader.nextString();
+                    break;
+                case "ServerAddress":
+                    this.serverAddress = jsonReader.nextString();
+                    break;
+                case "ThirdPartyName":
+                    this.thirdPartyName = jsonReader.nextString();
+                    break;
+                case "ThirdPartyNameOnly":
+                    this.thirdPartyNameOnly = jsonReader.nextBoolean();
+                    break;
+                // SkinInfo
+                case "AnimatedImageData":
+                    this.readSkinAnimations(jsonReader);
+                    break;
+                case "ArmSize":
+                    this.skin.setArmSize(jsonReader.nextString());
+                    break;
+                case "CapeData":
+                    capeImageData = Base64.getDecoder().decode(jsonReader.nextString());
+                    break;
+                case "CapeImageWidth":
+                    capeImageWidth = jsonReader.nextInt();
+                    break;
+                case "CapeImageHeight":
+                    capeImageHeight = jsonReader.nextInt();
+                    break;
+                case "CapeId":
+                    this.skin.setCapeId(jsonReader.nextString());
+                    break;
+                case "CapeOnClassicSkin":
+                    this.skin.setCapeOnClassic(jsonReader.nextBoolean());
+                    break;
+                case "PersonaPieces":
+                    this.readPersonaPieces(jsonReader);
+                    break;
+                case "PersonaSkin":
+                    this.skin.setPersona(jsonReader.nextBoolean());
+                    break;
+                case "PieceTintColors":
+                    this.readPersonaPieceTints(jsonReader);
+                    break;
+                case "PlayFabId":
+                    this.playFabId = jsonReader.nextString();
+                    break;
+                case "PremiumSkin":
+                    this.skin.setPremium(jsonReader.nextBoolean());
+                    break;
+                case "SkinAnimationData":
+                    this.skin.setAnimationData(this.decodeBase64String(jsonReader.nextString()));
+                    break;
+                case "SkinColor":
+                    this.skin.setSkinColor(jsonReader.nextString());
+                    break;
+                case "SkinData":
+                    skinImageData = Base64.getDecoder().decode(jsonReader.nextString());
+                    break;
+                case "SkinImageWidth":
+                    skinImageWidth = jsonReader.nextInt();
+                    break;
+                case "SkinImageHeight":
+                    skinImageHeight = jsonReader.nextInt();
+                    break;
+                case "SkinGeometryData":
+                    this.skin.setGeometryData(this.decodeBase64String(jsonReader.nextString()));
+                    break;
+                case "SkinId":
+                    this.skin.setSkinId(jsonReader.nextString());
+                    break;
+                case "SkinResourcePatch":
+                    this.skin.setResourcePatch(this.decodeBase64String(jsonReader.nextString()));
+                    break;
+                default:
+                    jsonReader.skipValue();
+                    break;
+            }
+        }
+
+        jsonReader.endObject();
+
+        if (clientId != null && currentInputHardwareId != null && defaultInputHardwareId != null &&
+                deviceId != null && deviceName != null && deviceOsId != null && guiScaleId != null &&
+                uiProfileId != null) {
+            this.deviceInfo = new DeviceInfo(deviceName, deviceId, clientId, DeviceOs.retrieveDeviceOsById(deviceOsId),
+                    GUIScale.retrieveGUIScaleById(guiScaleId), UIProfile.retrieveUIProfileById(uiProfileId),
+                    InputHardware.retrieveInputHardwareById(currentInputHardwareId),
+                    InputHardware.retrieveInputHardwareById(defaultInputHardwareId));
+        }
+
+        if (capeImageData != null) {
+            this.skin.setCapeData(this.createSkinImage(capeImageData, capeImageWidth, capeImageHeight));
+        }
+
+        if (skinImageData != null) {
+            this.skin.setSkinData(this.createSkinImage(skinImageData, skinImageWidth, skinImageHeight));
+        }
+
+        // the skin is hashed and encoded on this thread, so that the skin store only has to look it up
+        this.skin.seal();
+    }
+
+    private void readSkinAnimations(final JsonReader jsonReader) throws IOException {
+        jsonReader.beginArray();
+
+        while (jsonReader.hasNext()) {
+            byte[] skinImageData = new byte[0];
+            int skinImageWidth = 0;
+            int skinImageHeight = 0;
+            int type = 0;
+            float frames = 0;
+            int expression = 0;
+
+            jsonReader.beginObject();
 
-            if (skinInfo.has(dataType + "ImageWidth") && skinInfo.has(dataType + "ImageHeight")) {
-                final int width = skinInfo.get(dataType + "ImageWidth").getAsInt();
-                final int height = skinInfo.get(dataType + "ImageHeight").getAsInt();
+            while (jsonReader.hasNext()) {
+                switch (jsonReader.nextName()) {
+                    case "Image":
+                        skinImageData = Base64.getDecoder().decode(jsonReader.nextString());
+                        break;
+                    case "ImageWidth":
+                        skinImageWidth = jsonReader.nextInt();
+                        break;
+                    case "ImageHeight":
+                        skinImageHeight = jsonReader.nextInt();
+                        break;
+                    case "Type":
+                        type = jsonReader.nextInt();
+                        break;
+                    case "Frames":
+                        frames = (float) jsonReader.nextDouble();
+                        break;
+                    case "AnimationExpression":
+                        expression = jsonReader.nextInt();
+                        break;
+                    default:
+                        jsonReader.skipValue();
+                        break;
+                }
+            }
+
+            jsonReader.endObject();
+
+            this.skin.getSkinAnimations().add(new SkinAnimation(new SkinImage(skinImageWidth, skinImageHeight,
+                    skinImageData), type, frames, expression));
+        }
 
-                return new SkinImage(width, height, skinImageData);
-            } else {
-                return SkinImage.getImage(skinImageData);
+        jsonReader.endArray();
+    }
+
+    private void readPersonaPieces(final JsonReader jsonReader) throws IOException {
+        jsonReader.beginArray();
+
+        while (jsonReader.hasNext()) {
+            String pieceId = null;
+            String pieceType = null;
+            String packId = null;
+            String productId = null;
+            boolean isDefault = false;
+
+            jsonReader.beginObject();
+
+            while (jsonReader.hasNext()) {
+                switch (jsonReader.nextName()) {
+                    case "PieceId":
+                        pieceId = jsonReader.nextString();
+                        break;
+                    case "PieceType":
+                        pieceType = jsonReader.nextString();
+                        break;
+                    case "PackId":
+                        packId = jsonReader.nextString();
+                        break;
+                    case "ProductId":
+                        productId = jsonReader.nextString();
+                        break;
+                    case "IsDefault":
+                        isDefault = jsonReader.nextBoolean();
+                        break;
+                    default:
+                        jsonReader.skipValue();
+                        break;
+                }
+            }
+
+            jsonReader.endObject();
+
+            this.skin.getPersonaPieces().add(new PersonaPiece(pieceId, pieceType, packId, productId, isDefault));
+        }
+
+        jsonReader.endArray();
+    }
+
+    private void readPersonaPieceTints(final JsonReader jsonReader) throws IOException {
+        jsonReader.beginArray();
+
+        while (jsonReader.hasNext()) {
+            String pieceType = null;
+            final List<String> colors = new ArrayList<>();
+
+            jsonReader.beginObject();
+
+            while (jsonReader.hasNext()) {
+                switch (jsonReader.nextName()) {
+                    case "PieceType":
+                        pieceType = jsonReader.nextString();
+                        break;
+                    case "Colors":
+                        jsonReader.beginArray();
+
+                        while (jsonReader.hasNext()) {
+                            colors.add(jsonReader.nextString());
+                        }
+
+                        jsonReader.endArray();
+                        break;
+                    default:
+                        jsonReader.skipValue();
+                        break;
+                }
             }
+
+            jsonReader.endObject();
+
+            this.skin.getPersonaPieceTints().add(new PersonaPieceTint(pieceType, colors));
         }
 
-        return new SkinImage(0, 0, new byte[0]);
+        jsonReader.endArray();
+    }
+
+    private String decodeBase64String(final String encodedData) {
+        return new String(Base64.getDecoder().decode(encodedData), StandardCharsets.UTF_8);
     }
-}
\ No newline at end of file
+}
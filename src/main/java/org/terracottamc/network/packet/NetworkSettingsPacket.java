@@ -0,0 +1,43 @@
+package org.terracottamc.network.packet;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class NetworkSettingsPacket extends Packet {
+
+    private int compressionThreshold;
+
+    @Override
+    public int getPacketId() {
+        return Protocol.NETWORK_SETTINGS_PACKET;
+    }
+
+    @Override
+    public PacketPriority getPacketPriority() {
+        return PacketPriority.CONTROL;
+    }
+
+    @Override
+    public void serialize() {
+        super.serialize();
+
+        this.writeShortLE(this.compressionThreshold);
+    }
+
+    /**
+     * Sets the size in bytes from which on batches should be compressed
+     *
+     * @param compressionThreshold which should be set
+     */
+    public void setCompressionThreshold(final int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+}
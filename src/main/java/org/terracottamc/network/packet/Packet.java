@@ -1,7 +1,14 @@
 package org.terracottamc.network.packet;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.util.Recycler;
 import org.terracottamc.util.BinaryStream;
 
+import java.util.function.Supplier;
+
 /**
  * Copyright (c) 2021, TerracottaMC
  * All rights reserved.
@@ -17,6 +24,29 @@ public abstract class Packet extends BinaryStream {
 
     protected int protocolVersion;
 
+    private Recycler.Handle<Packet> recyclerHandle;
+
+    /**
+     * Creates a {@link io.netty.util.Recycler} which pools instances of a single
+     * {@link org.terracottamc.network.packet.Packet} type. The type has to clear its whole state in
+     * {@link org.terracottamc.network.packet.Packet#reset()}
+     *
+     * @param packetSupplier which creates new instances when the pool is empty
+     *
+     * @return a fresh {@link io.netty.util.Recycler}
+     */
+    public static Recycler<Packet> createRecycler(final Supplier<? extends Packet> packetSupplier) {
+        return new Recycler<Packet>() {
+            @Override
+            protected Packet newObject(final Handle<Packet> handle) {
+                final Packet packet = packetSupplier.get();
+                packet.recyclerHandle = handle;
+
+                return packet;
+            }
+        };
+    }
+
     /**
      * Defines the identifier of this {@link org.terracottamc.network.packet.Packet}
      *
@@ -24,6 +54,16 @@ public abstract class Packet extends BinaryStream {
      */
     public abstract int getPacketId();
 
+    /**
+     * Defines the priority class in which this {@link org.terracottamc.network.packet.Packet} is scheduled,
+     * when it is sent to a {@link org.terracottamc.entity.player.Player}
+     *
+     * @return a fresh {@link org.terracottamc.network.packet.PacketPriority}
+     */
+    public PacketPriority getPacketPriority() {
+        return PacketPriority.GAMEPLAY;
+    }
+
     /**
      * This method is used to decode this {@link org.terracottamc.network.packet.Packet}
      */
@@ -38,6 +78,34 @@ public abstract class Packet extends BinaryStream {
         this.writeUnsignedVarInt(this.getPacketId());
     }
 
+    @Override
+    protected DecodingLimitException createDecodingLimitException(final String message) {
+        return this.getDecodingLimits() != null ? this.getDecodingLimits().violation(this.getPacketId(), message) :
+                new DecodingLimitException(message);
+    }
+
+    /**
+     * Resets the state of this {@link org.terracottamc.network.packet.Packet}, so that the instance can be reused.
+     * Packet types which are pooled have to override this method and clear every field they are decoding
+     */
+    public void reset() {
+        this.protocolVersion = 0;
+    }
+
+    /**
+     * Releases the buffer of this {@link org.terracottamc.network.packet.Packet} and hands the instance back
+     * to its {@link io.netty.util.Recycler}, when it was retrieved from one.
+     * The instance must not be used anymore after this method was called
+     */
+    public void recycle() {
+        this.setBuffer(Unpooled.EMPTY_BUFFER);
+
+        if (this.recyclerHandle != null) {
+            this.reset();
+            this.recyclerHandle.recycle(this);
+        }
+    }
+
     /**
      * Sets the protocol version to work with of this {@link org.terracottamc.network.packet.Packet}
      *
@@ -46,4 +114,50 @@ public abstract class Packet extends BinaryStream {
     public void setProtocolVersion(final int protocolVersion) {
         this.protocolVersion = protocolVersion;
     }
-}
\ No newline at end of file
+
+    /**
+     * Encodes this {@link org.terracottamc.network.packet.Packet} for the given protocol version into a fresh
+     * buffer which is owned by the caller. The result is read-only, so that it can be shared between channels
+     * by writing retained duplicates of it
+     *
+     * @param protocolVersion which is used to encode this {@link org.terracottamc.network.packet.Packet}
+     *
+     * @return a fresh read-only {@link io.netty.buffer.ByteBuf}
+     */
+    public ByteBuf encode(final int protocolVersion) {
+        this.setProtocolVersion(protocolVersion);
+
+        return this.encode(PooledByteBufAllocator.DEFAULT).asReadOnly();
+    }
+
+    /**
+     * Encodes this {@link org.terracottamc.network.packet.Packet} into a fresh buffer of the given allocator
+     * which is owned by the caller. The buffer is sized by the previous encodes of the same packet id
+     * and this {@link org.terracottamc.network.packet.Packet} does not keep a reference of it, so that the same
+     * instance can be encoded again
+     *
+     * @param allocator which is used to allocate the buffer
+     *
+     * @return a fresh {@link io.netty.buffer.ByteBuf}
+     */
+    public ByteBuf encode(final ByteBufAllocator allocator) {
+        final int packetId = this.getPacketId();
+        final ByteBuf buffer = allocator.ioBuffer(PacketSizeEstimator.estimateSize(packetId));
+
+        this.setBuffer(buffer.retain());
+
+        try {
+            this.serialize();
+        } catch (final RuntimeException e) {
+            buffer.release();
+
+            throw e;
+        } finally {
+            this.setBuffer(Unpooled.EMPTY_BUFFER);
+        }
+
+        PacketSizeEstimator.recordSize(packetId, buffer.readableBytes());
+
+        return buffer;
+    }
+}
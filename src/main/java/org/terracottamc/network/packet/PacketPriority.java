@@ -0,0 +1,32 @@
+package org.terracottamc.network.packet;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public enum PacketPriority {
+
+    /**
+     * Packets which control the connection itself and are never held back by the bandwidth budget
+     */
+    CONTROL,
+    /**
+     * Packets which are needed to play, for example chat and entity updates
+     */
+    GAMEPLAY,
+    /**
+     * Packets which stream the world around the player
+     */
+    WORLD_STREAMING,
+    /**
+     * Large downloads like resource packs, which are the first ones to be starved
+     */
+    BULK
+}
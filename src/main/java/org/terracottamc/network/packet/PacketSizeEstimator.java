@@ -0,0 +1,50 @@
+package org.terracottamc.network.packet;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class PacketSizeEstimator {
+
+    private static final int DEFAULT_SIZE = 64;
+    private static final int MAXIMUM_SIZE = 1024 * 1024;
+
+    // the estimates are only hints, so that lost updates between threads do not matter
+    private static final int[] estimatedSizes = new int[0x400];
+
+    /**
+     * Retrieves the size in bytes a buffer for the given packet id should initially have
+     *
+     * @param packetId which is used to retrieve the estimated size
+     *
+     * @return a fresh estimated size in bytes
+     */
+    public static int estimateSize(final int packetId) {
+        final int estimatedSize = PacketSizeEstimator.estimatedSizes[packetId & 0x3FF];
+
+        return estimatedSize == 0 ? PacketSizeEstimator.DEFAULT_SIZE : estimatedSize;
+    }
+
+    /**
+     * Records the size of an encoded packet, so that the next buffers for the same packet id are sized properly
+     *
+     * @param packetId    which represents the id of the encoded packet
+     * @param encodedSize which represents the size in bytes of the encoded packet
+     */
+    public static void recordSize(final int packetId, final int encodedSize) {
+        final int index = packetId & 0x3FF;
+        final int estimatedSize = PacketSizeEstimator.estimatedSizes[index];
+        final int size = Math.min(PacketSizeEstimator.MAXIMUM_SIZE, encodedSize);
+
+        // grows immediately to avoid reallocations, but shrinks slowly to follow smaller packets
+        PacketSizeEstimator.estimatedSizes[index] = size >= estimatedSize ? size :
+                estimatedSize - ((estimatedSize - size) >> 3);
+    }
+}
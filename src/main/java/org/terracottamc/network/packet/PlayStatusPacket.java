@@ -22,6 +22,12 @@ public class PlayStatusPacket extends Packet {
         return Protocol.PLAY_STATUS_PACKET;
     }
 
+    @Override
+    public PacketPriority getPacketPriority() {
+        // the spawn status must not overtake the start game and the other gameplay packets of the join
+        return this.playStatus == PlayStatus.PLAYER_SPAWN ? PacketPriority.GAMEPLAY : PacketPriority.CONTROL;
+    }
+
     @Override
     public void serialize() {
         super.serialize();
@@ -28,8 +28,8 @@ public interface Protocol {
     short BATCH_PACKET = 0xfe;
     byte LOGIN_PACKET = 0x01;
     byte PLAY_STATUS_PACKET = 0x02;
-    // byte SERVER_TO_CLIENT_HANDSHAKE_PACKET = 0x03;
-    // byte CLIENT_TO_SERVER_HANDSHAKE_PACKET = 0x04;
+    byte SERVER_TO_CLIENT_HANDSHAKE_PACKET = 0x03;
+    byte CLIENT_TO_SERVER_HANDSHAKE_PACKET = 0x04;
     byte DISCONNECT_PACKET = 0x05;
     byte RESOURCE_PACKS_INFO_PACKET = 0x06;
     byte RESOURCE_PACK_STACK_PACKET = 0x07;
@@ -48,6 +48,7 @@ public interface Protocol {
     byte AVAILABLE_ENTITY_IDENTIFIERS_PACKET = 0x77;
     byte BIOME_DEFINITION_LIST_PACKET = 0x7a;
     short CLIENT_CACHE_STATUS_PACKET = 0x81;
+    short NETWORK_SETTINGS_PACKET = 0x8f;
     short CREATIVE_CONTENT_PACKET = 0x91;
     short VIOLATION_WARNING_PACKET = 0x9c;
 }
\ No newline at end of file
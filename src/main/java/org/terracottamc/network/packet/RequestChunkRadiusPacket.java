@@ -27,6 +27,13 @@ public class RequestChunkRadiusPacket extends Packet {
         this.chunkRadius = this.readVarInt();
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+
+        this.chunkRadius = 0;
+    }
+
     /**
      * Retrieves the chunk radius of this {@link org.terracottamc.network.packet.RequestChunkRadiusPacket}
      *
@@ -23,6 +23,11 @@ public class ResourcePackChunkDataPacket extends Packet {
         return Protocol.RESOURCE_PACK_CHUNK_DATA_PACKET;
     }
 
+    @Override
+    public PacketPriority getPacketPriority() {
+        return PacketPriority.BULK;
+    }
+
     @Override
     public void serialize() {
         super.serialize();
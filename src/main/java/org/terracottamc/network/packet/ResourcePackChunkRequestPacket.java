@@ -29,6 +29,14 @@ public class ResourcePackChunkRequestPacket extends Packet {
         this.chunkIndex = this.readIntLE();
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+
+        this.resourcePackUuid = null;
+        this.chunkIndex = 0;
+    }
+
     /**
      * Retrieves the uniqueId of the resource pack
      * of this {@link org.terracottamc.network.packet.ResourcePackChunkRequestPacket}
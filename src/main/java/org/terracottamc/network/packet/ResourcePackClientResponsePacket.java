@@ -36,7 +36,7 @@ public class ResourcePackClientResponsePacket extends Packet {
 
         this.responseStatus = ResourcePackResponseStatus.retrieveResponseStatusById(responseStatusId);
 
-        final short resourcePackEntriesLength = this.readShortLE();
+        final int resourcePackEntriesLength = this.checkListSize(this.readShortLE());
 
         for (int i = 0; i < resourcePackEntriesLength; i++) {
             final String[] resourcePackEntryElements = this.readString().split("_");
@@ -47,6 +47,14 @@ public class ResourcePackClientResponsePacket extends Packet {
         }
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+
+        this.resourcePackEntries.clear();
+        this.responseStatus = null;
+    }
+
     /**
      * Retrieves the resource pack entries
      * of this {@link org.terracottamc.network.packet.ResourcePackClientResponsePacket}
@@ -0,0 +1,43 @@
+package org.terracottamc.network.packet;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class ServerToClientHandshakePacket extends Packet {
+
+    private String jwt;
+
+    @Override
+    public int getPacketId() {
+        return Protocol.SERVER_TO_CLIENT_HANDSHAKE_PACKET;
+    }
+
+    @Override
+    public PacketPriority getPacketPriority() {
+        return PacketPriority.CONTROL;
+    }
+
+    @Override
+    public void serialize() {
+        super.serialize();
+
+        this.writeString(this.jwt);
+    }
+
+    /**
+     * Updates the signed jwt which holds the public key of the server and the salt of the encryption key
+     *
+     * @param jwt which represents the updated value
+     */
+    public void setJwt(final String jwt) {
+        this.jwt = jwt;
+    }
+}
@@ -27,6 +27,13 @@ public class SetLocalPlayerAsInitializedPacket extends Packet {
         this.playerEntityId = this.readUnsignedVarLong();
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+
+        this.playerEntityId = 0;
+    }
+
     /**
      * Retrieves the entity identifier of the player who is ready to be initialized
      *
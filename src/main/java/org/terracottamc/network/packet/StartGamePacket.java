@@ -1,5 +1,6 @@
 package org.terracottamc.network.packet;
 
+import io.netty.buffer.ByteBuf;
 import org.terracottamc.entity.player.GameMode;
 import org.terracottamc.math.Vector;
 import org.terracottamc.network.packet.type.GamePublishSetting;
@@ -9,7 +10,6 @@ import org.terracottamc.world.gamerule.GameRule;
 import org.terracottamc.world.generator.GeneratorType;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * Copyright (c) 2021, TerracottaMC
@@ -79,7 +79,7 @@ public class StartGamePacket extends Packet {
     private int enchantmentSeed;
 
     private int customBlocksAmount;
-    private List<Map<String, Object>> itemPalette;
+    private ByteBuf itemPaletteData;
     private String multiplayerCorrelationId;
     private boolean inventoryServerAuthoritative;
     private String serverEngine;
@@ -151,12 +151,14 @@ public class StartGamePacket extends Packet {
         this.writeVarInt(this.enchantmentSeed);
         this.writeUnsignedVarInt(this.customBlocksAmount);
 
-        this.writeUnsignedVarInt(this.itemPalette.size());
-
-        for (final Map<String, Object> item : this.itemPalette) {
-            this.writeString((String) item.get("name"));
-            this.writeShortLE((int) ((double) item.get("id")));
-            this.writeBoolean(false);
+        if (this.itemPaletteData != null) {
+            try {
+                this.writeBytes(this.itemPaletteData);
+            } finally {
+                this.itemPaletteData.release();
+            }
+        } else {
+            this.writeUnsignedVarInt(0);
         }
 
         this.writeString(this.multiplayerCorrelationId);
@@ -380,8 +382,8 @@ public class StartGamePacket extends Packet {
         this.customBlocksAmount = customBlocksAmount;
     }
 
-    public void setItemPalette(final List<Map<String, Object>> itemPalette) {
-        this.itemPalette = itemPalette;
+    public void setItemPaletteData(final ByteBuf itemPaletteData) {
+        this.itemPaletteData = itemPaletteData;
     }
 
     public void setMultiplayerCorrelationId(final String multiplayerCorrelationId) {
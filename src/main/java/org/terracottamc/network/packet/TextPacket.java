@@ -58,7 +58,7 @@ public class TextPacket extends Packet {
             case JUKEBOX_POPUP:
                 this.message = this.readString();
 
-                final int amount = this.readUnsignedVarInt();
+                final int amount = this.readListSize();
 
                 for (int i = 0; i < amount; i++) {
                     this.arguments.add(this.readString());
@@ -103,6 +103,19 @@ public class TextPacket extends Packet {
         this.writeString(this.deviceId);
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+
+        this.arguments.clear();
+        this.chatType = null;
+        this.messageSender = null;
+        this.message = null;
+        this.localized = false;
+        this.xboxId = null;
+        this.deviceId = null;
+    }
+
     /**
      * Retrieves the arguments of this {@link org.terracottamc.network.packet.TextPacket}
      *
@@ -29,6 +29,14 @@ public class TickSyncPacket extends Packet {
         this.responseTimestamp = this.readLongLE();
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+
+        this.requestTimestamp = 0;
+        this.responseTimestamp = 0;
+    }
+
     /**
      * Retrieves the request timestamp of this {@link org.terracottamc.network.packet.TickSyncPacket}
      *
@@ -43,6 +43,16 @@ public class ViolationWarningPacket extends Packet {
         this.context = this.readString();
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+
+        this.violationType = null;
+        this.violationSeverity = null;
+        this.packetId = 0;
+        this.context = null;
+    }
+
     /**
      * Retrieves the {@link org.terracottamc.network.packet.type.ViolationType}
      * of this {@link org.terracottamc.network.packet.ViolationWarningPacket}
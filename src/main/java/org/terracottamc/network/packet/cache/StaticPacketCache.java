@@ -0,0 +1,147 @@
+package org.terracottamc.network.packet.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.terracottamc.network.packet.AvailableEntityIdentifiersPacket;
+import org.terracottamc.network.packet.BiomeDefinitionListPacket;
+import org.terracottamc.network.packet.CreativeContentPacket;
+import org.terracottamc.network.packet.Packet;
+import org.terracottamc.network.packet.Protocol;
+import org.terracottamc.util.BedrockResourceDataReader;
+import org.terracottamc.util.BinaryStream;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class StaticPacketCache {
+
+    private static final Map<Integer, ByteBuf> creativeContentPackets = new HashMap<>();
+    private static final Map<Integer, ByteBuf> biomeDefinitionListPackets = new HashMap<>();
+    private static final Map<Integer, ByteBuf> availableEntityIdentifiersPackets = new HashMap<>();
+    private static final Map<Integer, ByteBuf> itemPaletteData = new HashMap<>();
+
+    /**
+     * Initializes this {@link org.terracottamc.network.packet.cache.StaticPacketCache} by encoding the packets,
+     * which are equal for every player of a protocol version, once.
+     * The {@link org.terracottamc.util.BedrockResourceDataReader} has to be initialized before
+     */
+    public static void initialize() {
+        for (final int protocolVersion : Protocol.SUPPORTED_PROTOCOL_VERSIONS) {
+            StaticPacketCache.creativeContentPackets.put(protocolVersion,
+                    StaticPacketCache.encode(new CreativeContentPacket(), protocolVersion));
+
+            final BiomeDefinitionListPacket biomeDefinitionListPacket = new BiomeDefinitionListPacket();
+            biomeDefinitionListPacket.setBiomeDefintionListData(BedrockResourceDataReader
+                    .retrieveBiomeDefinitionsDataByProtocolVersion(protocolVersion));
+
+            StaticPacketCache.biomeDefinitionListPackets.put(protocolVersion,
+                    StaticPacketCache.encode(biomeDefinitionListPacket, protocolVersion));
+
+            final AvailableEntityIdentifiersPacket availableEntityIdentifiersPacket =
+                    new AvailableEntityIdentifiersPacket();
+            availableEntityIdentifiersPacket.setEntityIdentifiersData(BedrockResourceDataReader
+                    .retrieveEntityIdentifiersDataByProtocolVersion(protocolVersion));
+
+            StaticPacketCache.availableEntityIdentifiersPackets.put(protocolVersion,
+                    StaticPacketCache.encode(availableEntityIdentifiersPacket, protocolVersion));
+
+            final List<Map<String, Object>> itemPalette =
+                    BedrockResourceDataReader.retrieveItemPaletteByProtocolVersion(protocolVersion);
+
+            if (itemPalette != null) {
+                final BinaryStream binaryStream = new BinaryStream();
+                binaryStream.setBuffer(Unpooled.buffer());
+                binaryStream.writeUnsignedVarInt(itemPalette.size());
+
+                for (final Map<String, Object> item : itemPalette) {
+                    binaryStream.writeString((String) item.get("name"));
+                    binaryStream.writeShortLE((int) ((double) item.get("id")));
+                    binaryStream.writeBoolean(false);
+                }
+
+                StaticPacketCache.itemPaletteData.put(protocolVersion,
+                        StaticPacketCache.seal(binaryStream.getBuffer()));
+            }
+        }
+    }
+
+    /**
+     * Retrieves the encoded {@link org.terracottamc.network.packet.CreativeContentPacket}
+     * for the given protocol version
+     *
+     * @param protocolVersion which is used to retrieve the encoded packet
+     *
+     * @return a fresh retained duplicate of the encoded packet or null, when the protocol version is not supported
+     */
+    public static ByteBuf retrieveCreativeContentPacket(final int protocolVersion) {
+        return StaticPacketCache.retrieve(StaticPacketCache.creativeContentPackets, protocolVersion);
+    }
+
+    /**
+     * Retrieves the encoded {@link org.terracottamc.network.packet.BiomeDefinitionListPacket}
+     * for the given protocol version
+     *
+     * @param protocolVersion which is used to retrieve the encoded packet
+     *
+     * @return a fresh retained duplicate of the encoded packet or null, when the protocol version is not supported
+     */
+    public static ByteBuf retrieveBiomeDefinitionListPacket(final int protocolVersion) {
+        return StaticPacketCache.retrieve(StaticPacketCache.biomeDefinitionListPackets, protocolVersion);
+    }
+
+    /**
+     * Retrieves the encoded {@link org.terracottamc.network.packet.AvailableEntityIdentifiersPacket}
+     * for the given protocol version
+     *
+     * @param protocolVersion which is used to retrieve the encoded packet
+     *
+     * @return a fresh retained duplicate of the encoded packet or null, when the protocol version is not supported
+     */
+    public static ByteBuf retrieveAvailableEntityIdentifiersPacket(final int protocolVersion) {
+        return StaticPacketCache.retrieve(StaticPacketCache.availableEntityIdentifiersPackets, protocolVersion);
+    }
+
+    /**
+     * Retrieves the encoded item palette section of the {@link org.terracottamc.network.packet.StartGamePacket}
+     * for the given protocol version
+     *
+     * @param protocolVersion which is used to retrieve the encoded item palette
+     *
+     * @return a fresh retained duplicate of the encoded item palette or null,
+     * when the protocol version is not supported
+     */
+    public static ByteBuf retrieveItemPaletteData(final int protocolVersion) {
+        return StaticPacketCache.retrieve(StaticPacketCache.itemPaletteData, protocolVersion);
+    }
+
+    private static ByteBuf retrieve(final Map<Integer, ByteBuf> buffers, final int protocolVersion) {
+        final ByteBuf buffer = buffers.get(protocolVersion);
+
+        return buffer != null ? buffer.retainedDuplicate() : null;
+    }
+
+    private static ByteBuf encode(final Packet packet, final int protocolVersion) {
+        return StaticPacketCache.seal(packet.encode(protocolVersion));
+    }
+
+    private static ByteBuf seal(final ByteBuf buffer) {
+        final ByteBuf directBuffer = Unpooled.directBuffer(buffer.readableBytes()).writeBytes(buffer);
+
+        buffer.release();
+
+        // the cached buffers live as long as the server, so that the duplicates must not be able to release them
+        return Unpooled.unreleasableBuffer(directBuffer.asReadOnly());
+    }
+}
@@ -0,0 +1,57 @@
+package org.terracottamc.network.packet.handler;
+
+import org.terracottamc.entity.player.Player;
+import org.terracottamc.entity.player.PlayerNetworkConnection;
+import org.terracottamc.network.packet.ClientToServerHandshakePacket;
+import org.terracottamc.network.raknet.encryption.PacketEncryption;
+import org.terracottamc.server.Server;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class ClientToServerHandshakePacketHandler implements IPacketHandler<ClientToServerHandshakePacket> {
+
+    private final LoginPacketHandler loginPacketHandler;
+
+    /**
+     * Creates a new {@link org.terracottamc.network.packet.handler.ClientToServerHandshakePacketHandler}
+     *
+     * @param loginPacketHandler which completes the login once the client has answered the handshake
+     */
+    public ClientToServerHandshakePacketHandler(final LoginPacketHandler loginPacketHandler) {
+        this.loginPacketHandler = loginPacketHandler;
+    }
+
+    @Override
+    public void handle(final ClientToServerHandshakePacket packet, final Player player) {
+        final PlayerNetworkConnection playerNetworkConnection = player.getPlayerNetworkConnection();
+        final PacketEncryption packetEncryption = playerNetworkConnection.getRakNetSession().pipeline()
+                .get(PacketEncryption.class);
+
+        // the client answers the handshake with its first encrypted batch
+        if (packetEncryption == null || !packetEncryption.isEnabled()) {
+            return;
+        }
+
+        // another answer would complete the login again and queue a second join
+        if (!playerNetworkConnection.completeEncryptionHandshake()) {
+            Server.getInstance().getLogger().error("Disconnecting " +
+                    playerNetworkConnection.getRakNetSession().remoteAddress() +
+                    ": The encryption handshake was answered more than once");
+
+            playerNetworkConnection.getRakNetSession().close();
+
+            return;
+        }
+
+        this.loginPacketHandler.completeLogin(player);
+    }
+}
@@ -1,5 +1,6 @@
 package org.terracottamc.network.packet.handler;
 
+import io.netty.channel.Channel;
 import org.terracottamc.entity.player.Player;
 import org.terracottamc.network.packet.Packet;
 
@@ -23,4 +24,19 @@ public interface IPacketHandler<T extends Packet> {
      * @param player who is affected in this packet handling
      */
     void handle(final T packet, final Player player);
+
+    /**
+     * Executes packet handling of the given packet which was received by the given {@link io.netty.channel.Channel}.
+     * Packets which are sent before the login has been completed have to override this method,
+     * because there is no {@link org.terracottamc.entity.player.Player} for them yet
+     *
+     * @param packet  which should be handled
+     * @param channel which received the packet
+     * @param player  who is affected in this packet handling or null, when the login has not been completed yet
+     */
+    default void handle(final T packet, final Channel channel, final Player player) {
+        if (player != null) {
+            this.handle(packet, player);
+        }
+    }
 }
\ No newline at end of file
@@ -5,13 +5,22 @@ import org.terracottamc.entity.player.LoginChainData;
 import org.terracottamc.entity.player.Player;
 import org.terracottamc.entity.player.PlayerNetworkConnection;
 import org.terracottamc.entity.player.info.DeviceInfo;
+import org.terracottamc.network.packet.DecodingLimitException;
 import org.terracottamc.network.packet.LoginPacket;
+import org.terracottamc.network.packet.NetworkSettingsPacket;
+import org.terracottamc.network.packet.PlayStatusPacket;
 import org.terracottamc.network.packet.Protocol;
 import org.terracottamc.network.packet.ResourcePacksInfoPacket;
+import org.terracottamc.network.packet.ServerToClientHandshakePacket;
 import org.terracottamc.network.packet.type.PlayStatus;
+import org.terracottamc.network.raknet.encryption.PacketEncryption;
+import org.terracottamc.network.security.EncryptionHandshake;
+import org.terracottamc.network.security.LoginVerificationExecutor;
 import org.terracottamc.server.Server;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Copyright (c) 2021, TerracottaMC
@@ -31,8 +40,76 @@ public class LoginPacketHandler implements IPacketHandler<LoginPacket> {
 
     }
 
+    @Override
+    public void handle(final LoginPacket packet, final Channel channel, final Player player) {
+        final Server server = Server.getInstance();
+
+        final LoginVerificationExecutor loginVerificationExecutor = server.getLoginVerificationExecutor();
+
+        // the protocol version and the player limit are checked before the expensive login data is touched.
+        // The logins which are still verified take a slot as well, so that a wave of logins cannot pass the check
+        // at once and run the whole crypto only to be rejected afterwards
+        PlayStatus playStatus = this.retrievePlayStatus(packet.getProtocolVersion());
+
+        if (playStatus == PlayStatus.LOGIN_SUCCESS && server.getPlayerRegistry().size() +
+                loginVerificationExecutor.getPendingLogins() >= server.getMaxPlayers()) {
+            playStatus = PlayStatus.LOGIN_FAILED_SERVER_FULL;
+
+            loginVerificationExecutor.recordRejectedLogin();
+        }
+
+        if (playStatus != PlayStatus.LOGIN_SUCCESS) {
+            this.rejectLogin(server, channel, playStatus);
+
+            return;
+        }
+
+        // the received packet is recycled once this method returns, so that the verification works on its own
+        // instance which holds another reference of the login data
+        final LoginPacket loginPacket = new LoginPacket();
+        loginPacket.setProtocolVersion(packet.getProtocolVersion());
+        loginPacket.setBuffer(packet.getBuffer().retain());
+        loginPacket.setDecodingLimits(packet.getDecodingLimits());
+
+        final CompletableFuture<LoginPacket> verification;
+
+        try {
+            verification = loginVerificationExecutor.verify(loginPacket);
+        } catch (final RejectedExecutionException e) {
+            this.rejectLogin(server, channel, PlayStatus.LOGIN_FAILED_SERVER_FULL);
+
+            return;
+        }
+
+        verification.whenCompleteAsync((verifiedPacket, throwable) -> {
+            if (!channel.isActive()) {
+                return;
+            }
+
+            if (throwable != null && throwable.getCause() instanceof DecodingLimitException) {
+                server.getLogger().error("Disconnecting " + channel.remoteAddress() + ": " +
+                        throwable.getCause().getMessage());
+
+                channel.close();
+
+                return;
+            }
+
+            if (throwable != null) {
+                server.getLogger().error("The login of " + channel.remoteAddress() + " could not be verified: " +
+                        throwable.getMessage());
+
+                this.rejectLogin(server, channel, PlayStatus.LOGIN_FAILED_INVALID_CLIENT);
+
+                return;
+            }
+
+            this.handleLogin(verifiedPacket, channel);
+        }, channel.eventLoop());
+    }
+
     /**
-     * Handles the {@link org.terracottamc.network.packet.LoginPacket}
+     * Handles the {@link org.terracottamc.network.packet.LoginPacket} after its login data was verified
      *
      * @param packet        which should be handled
      * @param rakNetSession which represents the session of the client
@@ -52,11 +129,12 @@ public class LoginPacketHandler implements IPacketHandler<LoginPacket> {
         final String serverAddress = packet.getServerAddress();
         final String thirdPartyName = packet.getThirdPartyName();
         final boolean thirdPartyNameOnly = packet.isThirdPartyNameOnly();
+        final String playFabId = packet.getPlayFabId();
         final DeviceInfo deviceInfo = packet.getDeviceInfo();
 
         final LoginChainData loginChainData = new LoginChainData(protocolVersion, username, xboxId, uuid, languageCode,
                 gameVersion, platformOfflineId, platformOnlineId, selfSignedId, serverAddress, thirdPartyName,
-                thirdPartyNameOnly, deviceInfo);
+                thirdPartyNameOnly, playFabId, deviceInfo);
         final Player player = new Player(new PlayerNetworkConnection(server, rakNetSession), loginChainData);
         player.setUuid(uuid);
         player.setSkin(packet.getSkin());
@@ -64,35 +142,107 @@ public class LoginPacketHandler implements IPacketHandler<LoginPacket> {
         player.setNameTagVisible(true);
         player.setNameTagAlwaysVisible(true);
 
-        PlayStatus playStatus = PlayStatus.LOGIN_SUCCESS;
+        PlayStatus playStatus = this.retrievePlayStatus(protocolVersion);
 
-        if (!Protocol.SUPPORTED_PROTOCOL_VERSIONS.contains(protocolVersion)) {
-            if (protocolVersion < Protocol.PROTOCOL_v1_17_0) {
-                playStatus = PlayStatus.LOGIN_FAILED_CLIENT_OUTDATED;
-            }
-
-            if (protocolVersion > Protocol.CURRENT_PROTOCOL) {
-                playStatus = PlayStatus.LOGIN_FAILED_SERVER_OUTDATED;
-            }
-        }
-
-        if (server.getPlayers().size() >= server.getMaxPlayers()) {
+        if (server.getPlayerRegistry().size() >= server.getMaxPlayers()) {
             playStatus = PlayStatus.LOGIN_FAILED_SERVER_FULL;
         }
 
-        player.sendPlayStatus(playStatus);
-
         if (!playStatus.equals(PlayStatus.LOGIN_SUCCESS)) {
+            player.sendPlayStatus(playStatus);
+
             return;
         }
 
         server.addPlayer(player);
 
+        final EncryptionHandshake encryptionHandshake = packet.getEncryptionHandshake();
+
+        if (encryptionHandshake != null) {
+            final ServerToClientHandshakePacket serverToClientHandshakePacket = new ServerToClientHandshakePacket();
+            serverToClientHandshakePacket.setJwt(encryptionHandshake.getJwt());
+
+            // the handshake itself is sent unencrypted, the login is completed once the client answers encrypted
+            player.getPlayerNetworkConnection().beginEncryptionHandshake();
+            player.getPlayerNetworkConnection().sendPacket(serverToClientHandshakePacket, true);
+
+            PacketEncryption.enableEncryption(rakNetSession, encryptionHandshake.getSecretKey());
+
+            return;
+        }
+
+        this.completeLogin(player);
+    }
+
+    /**
+     * Completes the login of the given {@link org.terracottamc.entity.player.Player} and queues its join,
+     * so that the resource pack negotiation is started once the {@link org.terracottamc.entity.player.JoinQueue}
+     * has a free slot
+     *
+     * @param player whose login should be completed
+     */
+    public void completeLogin(final Player player) {
+        final Server server = Server.getInstance();
+
+        player.sendPlayStatus(PlayStatus.LOGIN_SUCCESS);
+
+        final NetworkSettingsPacket networkSettingsPacket = new NetworkSettingsPacket();
+        networkSettingsPacket.setCompressionThreshold(server.getCompressionThreshold());
+
+        player.getPlayerNetworkConnection().sendPacket(networkSettingsPacket);
+
+        server.getJoinQueue().enqueue(player, () -> this.startJoin(server, player));
+    }
+
+    /**
+     * Starts the join phases of the given {@link org.terracottamc.entity.player.Player}
+     * by sending the packet which starts the resource pack negotiation
+     *
+     * @param server which is joined
+     * @param player who is joining
+     */
+    private void startJoin(final Server server, final Player player) {
         final ResourcePacksInfoPacket resourcePacksInfoPacket = new ResourcePacksInfoPacket();
-        resourcePacksInfoPacket.setForceAccept(Server.getInstance().isForceResourcePacks());
+        resourcePacksInfoPacket.setForceAccept(server.isForceResourcePacks());
         resourcePacksInfoPacket.setScripting(false);
         resourcePacksInfoPacket.setForceServerPacks(false);
 
         player.getPlayerNetworkConnection().sendPacket(resourcePacksInfoPacket);
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the {@link org.terracottamc.network.packet.type.PlayStatus} for the given protocol version
+     *
+     * @param protocolVersion which is used to retrieve the {@link org.terracottamc.network.packet.type.PlayStatus}
+     *
+     * @return a fresh {@link org.terracottamc.network.packet.type.PlayStatus}
+     */
+    private PlayStatus retrievePlayStatus(final int protocolVersion) {
+        if (!Protocol.SUPPORTED_PROTOCOL_VERSIONS.contains(protocolVersion)) {
+            if (protocolVersion < Protocol.PROTOCOL_v1_17_0) {
+                return PlayStatus.LOGIN_FAILED_CLIENT_OUTDATED;
+            }
+
+            if (protocolVersion > Protocol.CURRENT_PROTOCOL) {
+                return PlayStatus.LOGIN_FAILED_SERVER_OUTDATED;
+            }
+        }
+
+        return PlayStatus.LOGIN_SUCCESS;
+    }
+
+    /**
+     * Sends the given {@link org.terracottamc.network.packet.type.PlayStatus} to a client
+     * whose login is rejected before a {@link org.terracottamc.entity.player.Player} was created
+     *
+     * @param server        which rejects the login
+     * @param rakNetSession which represents the session of the client
+     * @param playStatus    which tells the client why the login was rejected
+     */
+    private void rejectLogin(final Server server, final Channel rakNetSession, final PlayStatus playStatus) {
+        final PlayStatusPacket playStatusPacket = new PlayStatusPacket();
+        playStatusPacket.setPlayStatus(playStatus);
+
+        new PlayerNetworkConnection(server, rakNetSession).sendPacket(playStatusPacket, true);
+    }
+}
@@ -1,20 +1,18 @@
 package org.terracottamc.network.packet.handler;
 
 import org.terracottamc.entity.player.Player;
+import org.terracottamc.entity.player.PlayerNetworkConnection;
 import org.terracottamc.math.Vector;
-import org.terracottamc.network.packet.AvailableEntityIdentifiersPacket;
-import org.terracottamc.network.packet.BiomeDefinitionListPacket;
-import org.terracottamc.network.packet.CreativeContentPacket;
 import org.terracottamc.network.packet.ResourcePackClientResponsePacket;
 import org.terracottamc.network.packet.ResourcePackDataInfoPacket;
 import org.terracottamc.network.packet.ResourcePackStackPacket;
 import org.terracottamc.network.packet.StartGamePacket;
+import org.terracottamc.network.packet.cache.StaticPacketCache;
 import org.terracottamc.network.packet.type.GamePublishSetting;
 import org.terracottamc.network.packet.type.ResourcePackEntry;
 import org.terracottamc.network.packet.type.ResourcePackResponseStatus;
 import org.terracottamc.resourcepack.ResourcePack;
 import org.terracottamc.server.Server;
-import org.terracottamc.util.BedrockResourceDataReader;
 import org.terracottamc.world.Difficulty;
 import org.terracottamc.world.Dimension;
 import org.terracottamc.world.gamerule.GameRuleRegistry;
@@ -64,6 +62,8 @@ public class ResourcePackClientResponsePacketHandler implements IPacketHandler<R
                 this.sendResourcePackStack(player);
                 break;
             case COMPLETED:
+                final int protocolVersion = player.getLoginChainData().getProtocolVersion();
+
                 final StartGamePacket startGamePacket = new StartGamePacket();
                 startGamePacket.setEntityUniqueId(player.getEntityId());
                 startGamePacket.setEntityId(player.getEntityId());
@@ -119,27 +119,22 @@ public class ResourcePackClientResponsePacketHandler implements IPacketHandler<R
                 startGamePacket.setCurrentTick(0);
                 startGamePacket.setEnchantmentSeed(0);
                 startGamePacket.setCustomBlocksAmount(0);
-                startGamePacket.setItemPalette(BedrockResourceDataReader
-                        .retrieveItemPaletteByProtocolVersion(player.getLoginChainData().getProtocolVersion()));
+                startGamePacket.setItemPaletteData(StaticPacketCache.retrieveItemPaletteData(protocolVersion));
                 startGamePacket.setMultiplayerCorrelationId("");
                 startGamePacket.setInventoryServerAuthoritative(false);
                 startGamePacket.setServerEngine("Terracotta");
 
                 player.getPlayerNetworkConnection().sendPacket(startGamePacket);
 
-                final AvailableEntityIdentifiersPacket availableEntityIdentifiersPacket =
-                        new AvailableEntityIdentifiersPacket();
-                availableEntityIdentifiersPacket.setEntityIdentifiersData(BedrockResourceDataReader
-                        .retrieveEntityIdentifiersDataByProtocolVersion(player.getLoginChainData().getProtocolVersion()));
-
-                player.getPlayerNetworkConnection().sendPacket(availableEntityIdentifiersPacket);
-
-                final BiomeDefinitionListPacket biomeDefinitionListPacket = new BiomeDefinitionListPacket();
-                biomeDefinitionListPacket.setBiomeDefintionListData(BedrockResourceDataReader
-                        .retrieveBiomeDefinitionsDataByProtocolVersion(player.getLoginChainData().getProtocolVersion()));
+                final PlayerNetworkConnection playerNetworkConnection = player.getPlayerNetworkConnection();
 
-                player.getPlayerNetworkConnection().sendPacket(biomeDefinitionListPacket);
-                player.getPlayerNetworkConnection().sendPacket(new CreativeContentPacket());
+                // these packets are equal for every player of a protocol version and were encoded at startup
+                playerNetworkConnection.sendEncodedPacket(StaticPacketCache
+                        .retrieveAvailableEntityIdentifiersPacket(protocolVersion));
+                playerNetworkConnection.sendEncodedPacket(StaticPacketCache
+                        .retrieveBiomeDefinitionListPacket(protocolVersion));
+                playerNetworkConnection.sendEncodedPacket(StaticPacketCache
+                        .retrieveCreativeContentPacket(protocolVersion));
                 player.initialize();
                 break;
         }
@@ -2,6 +2,7 @@ package org.terracottamc.network.packet.handler;
 
 import org.terracottamc.entity.player.Player;
 import org.terracottamc.network.packet.SetLocalPlayerAsInitializedPacket;
+import org.terracottamc.server.Server;
 
 /**
  * Copyright (c) 2021, TerracottaMC
@@ -18,6 +19,7 @@ public class SetLocalPlayerAsInitializedPacketHandler implements IPacketHandler<
 
     @Override
     public void handle(final SetLocalPlayerAsInitializedPacket packet, final Player player) {
-
+        // the player has passed the join phases, so that the next queued player may join
+        Server.getInstance().getJoinQueue().completeJoin(player);
     }
 }
\ No newline at end of file
@@ -0,0 +1,180 @@
+package org.terracottamc.network.packet.registry;
+
+import io.netty.channel.Channel;
+import io.netty.util.Recycler;
+import org.terracottamc.entity.player.Player;
+import org.terracottamc.network.packet.Packet;
+import org.terracottamc.network.packet.handler.IPacketHandler;
+
+import java.util.function.Supplier;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class PacketDefinition<T extends Packet> {
+
+    private final int packetId;
+    private final Supplier<T> packetSupplier;
+    private final PacketDirection packetDirection;
+
+    private IPacketHandler<T> packetHandler;
+    private Recycler<Packet> packetRecycler;
+    private boolean lazyDecoding;
+    private boolean mainThreadHandling;
+
+    /**
+     * Creates a new {@link org.terracottamc.network.packet.registry.PacketDefinition}
+     *
+     * @param packetId        which represents the id of the {@link org.terracottamc.network.packet.Packet}
+     * @param packetSupplier  which creates new instances of the {@link org.terracottamc.network.packet.Packet}
+     * @param packetDirection which represents the direction the {@link org.terracottamc.network.packet.Packet}
+     *                        is sent in
+     */
+    public PacketDefinition(final int packetId, final Supplier<T> packetSupplier,
+                            final PacketDirection packetDirection) {
+        this.packetId = packetId;
+        this.packetSupplier = packetSupplier;
+        this.packetDirection = packetDirection;
+    }
+
+    /**
+     * Creates a {@link org.terracottamc.network.packet.Packet} of this definition,
+     * which is taken from the pool, when the recycling is enabled
+     *
+     * @return a fresh {@link org.terracottamc.network.packet.Packet}
+     */
+    public Packet createPacket() {
+        if (this.packetRecycler != null) {
+            return this.packetRecycler.get();
+        }
+
+        return this.packetSupplier.get();
+    }
+
+    /**
+     * Passes the given {@link org.terracottamc.network.packet.Packet} to the
+     * {@link org.terracottamc.network.packet.handler.IPacketHandler} of this definition
+     *
+     * @param packet  which should be handled
+     * @param channel which received the {@link org.terracottamc.network.packet.Packet}
+     * @param player  who sent the {@link org.terracottamc.network.packet.Packet} or null,
+     *                when the login has not been completed yet
+     */
+    @SuppressWarnings("unchecked")
+    public void handle(final Packet packet, final Channel channel, final Player player) {
+        if (this.packetHandler != null) {
+            this.packetHandler.handle((T) packet, channel, player);
+        }
+    }
+
+    /**
+     * Retrieves the id of the {@link org.terracottamc.network.packet.Packet} of this definition
+     *
+     * @return a fresh packet id
+     */
+    public int getPacketId() {
+        return this.packetId;
+    }
+
+    /**
+     * Retrieves the direction the {@link org.terracottamc.network.packet.Packet} of this definition is sent in
+     *
+     * @return a fresh {@link org.terracottamc.network.packet.registry.PacketDirection}
+     */
+    public PacketDirection getPacketDirection() {
+        return this.packetDirection;
+    }
+
+    /**
+     * Retrieves the {@link org.terracottamc.network.packet.handler.IPacketHandler} of this definition
+     *
+     * @return a fresh {@link org.terracottamc.network.packet.handler.IPacketHandler} or null,
+     * when the {@link org.terracottamc.network.packet.Packet} is not handled
+     */
+    public IPacketHandler<T> getPacketHandler() {
+        return this.packetHandler;
+    }
+
+    /**
+     * Updates the {@link org.terracottamc.network.packet.handler.IPacketHandler} of this definition
+     *
+     * @param packetHandler which represents the updated value
+     *
+     * @return this {@link org.terracottamc.network.packet.registry.PacketDefinition}
+     */
+    public PacketDefinition<T> setPacketHandler(final IPacketHandler<T> packetHandler) {
+        this.packetHandler = packetHandler;
+
+        return this;
+    }
+
+    /**
+     * Checks whether the {@link org.terracottamc.network.packet.Packet} of this definition is decoded
+     * right before it is handled instead of in the {@link org.terracottamc.network.raknet.protocol.ProtocolDecoder}
+     *
+     * @return true, when the decoding is lazy, otherwise false
+     */
+    public boolean isLazyDecoding() {
+        return this.lazyDecoding;
+    }
+
+    /**
+     * Updates whether the {@link org.terracottamc.network.packet.Packet} of this definition should be decoded lazily
+     *
+     * @param lazyDecoding which represents the updated value
+     *
+     * @return this {@link org.terracottamc.network.packet.registry.PacketDefinition}
+     */
+    public PacketDefinition<T> setLazyDecoding(final boolean lazyDecoding) {
+        this.lazyDecoding = lazyDecoding;
+
+        return this;
+    }
+
+    /**
+     * Checks whether the {@link org.terracottamc.network.packet.Packet} of this definition is handled
+     * on the main {@link java.lang.Thread} instead of the network thread
+     *
+     * @return true, when it is handled on the main thread, otherwise false
+     */
+    public boolean isMainThreadHandling() {
+        return this.mainThreadHandling;
+    }
+
+    /**
+     * Updates whether the {@link org.terracottamc.network.packet.Packet} of this definition should be handled
+     * on the main {@link java.lang.Thread}
+     *
+     * @param mainThreadHandling which represents the updated value
+     *
+     * @return this {@link org.terracottamc.network.packet.registry.PacketDefinition}
+     */
+    public PacketDefinition<T> setMainThreadHandling(final boolean mainThreadHandling) {
+        this.mainThreadHandling = mainThreadHandling;
+
+        return this;
+    }
+
+    /**
+     * Enables the pooling of the instances of this definition.
+     * The {@link org.terracottamc.network.packet.Packet} has to clear its whole state in
+     * {@link org.terracottamc.network.packet.Packet#reset()}
+     *
+     * @return this {@link org.terracottamc.network.packet.registry.PacketDefinition}
+     */
+    public PacketDefinition<T> enableRecycling() {
+        if (this.packetRecycler == null) {
+            this.packetRecycler = Packet.createRecycler(this.packetSupplier);
+        }
+
+        return this;
+    }
+}
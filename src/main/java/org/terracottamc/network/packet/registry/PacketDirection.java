@@ -0,0 +1,29 @@
+package org.terracottamc.network.packet.registry;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public enum PacketDirection {
+
+    SERVERBOUND,
+    CLIENTBOUND,
+    BIDIRECTIONAL;
+
+    /**
+     * Checks whether packets of this {@link org.terracottamc.network.packet.registry.PacketDirection}
+     * may be sent by the client
+     *
+     * @return true, when the client may send these packets, otherwise false
+     */
+    public boolean isServerbound() {
+        return this != PacketDirection.CLIENTBOUND;
+    }
+}
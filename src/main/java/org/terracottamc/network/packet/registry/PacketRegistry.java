@@ -4,9 +4,11 @@ import org.terracottamc.network.packet.AvailableEntityIdentifiersPacket;
 import org.terracottamc.network.packet.BiomeDefinitionListPacket;
 import org.terracottamc.network.packet.ChunkRadiusUpdatedPacket;
 import org.terracottamc.network.packet.ClientCacheStatusPacket;
+import org.terracottamc.network.packet.ClientToServerHandshakePacket;
 import org.terracottamc.network.packet.CreativeContentPacket;
 import org.terracottamc.network.packet.DisconnectPacket;
 import org.terracottamc.network.packet.LoginPacket;
+import org.terracottamc.network.packet.NetworkSettingsPacket;
 import org.terracottamc.network.packet.Packet;
 import org.terracottamc.network.packet.PlayStatusPacket;
 import org.terracottamc.network.packet.Protocol;
@@ -17,6 +19,7 @@ import org.terracottamc.network.packet.ResourcePackClientResponsePacket;
 import org.terracottamc.network.packet.ResourcePackDataInfoPacket;
 import org.terracottamc.network.packet.ResourcePackStackPacket;
 import org.terracottamc.network.packet.ResourcePacksInfoPacket;
+import org.terracottamc.network.packet.ServerToClientHandshakePacket;
 import org.terracottamc.network.packet.SetEntityDataPacket;
 import org.terracottamc.network.packet.SetLocalPlayerAsInitializedPacket;
 import org.terracottamc.network.packet.SetTimePacket;
@@ -24,6 +27,7 @@ import org.terracottamc.network.packet.StartGamePacket;
 import org.terracottamc.network.packet.TextPacket;
 import org.terracottamc.network.packet.TickSyncPacket;
 import org.terracottamc.network.packet.ViolationWarningPacket;
+import org.terracottamc.network.packet.handler.ClientToServerHandshakePacketHandler;
 import org.terracottamc.network.packet.handler.IPacketHandler;
 import org.terracottamc.network.packet.handler.LoginPacketHandler;
 import org.terracottamc.network.packet.handler.RequestChunkRadiusPacketHandler;
@@ -32,8 +36,7 @@ import org.terracottamc.network.packet.handler.ResourcePackClientResponsePacketH
 import org.terracottamc.network.packet.handler.SetLocalPlayerAsInitializedPacketHandler;
 import org.terracottamc.network.packet.handler.ViolationWarningPacketHandler;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 /**
  * Copyright (c) 2021, TerracottaMC
@@ -48,98 +51,212 @@ import java.util.Map;
  */
 public class PacketRegistry {
 
-    private final Map<Class<? extends Packet>, IPacketHandler<? extends Packet>> packetHandlerMap = new HashMap<>();
+    private static final int PACKET_ID_AMOUNT = 0x400;
+
+    private final int[] protocolVersions;
+    private final PacketDefinition<? extends Packet>[][] packetDefinitions;
 
     /**
      * Creates a new {@link org.terracottamc.network.packet.registry.PacketRegistry}
      */
     public PacketRegistry() {
+        final List<Integer> supportedProtocolVersions = Protocol.SUPPORTED_PROTOCOL_VERSIONS;
+
+        this.protocolVersions = new int[supportedProtocolVersions.size()];
+
+        for (int i = 0; i < this.protocolVersions.length; i++) {
+            this.protocolVersions[i] = supportedProtocolVersions.get(i);
+        }
+
+        this.packetDefinitions = new PacketDefinition[this.protocolVersions.length][PacketRegistry.PACKET_ID_AMOUNT];
+
+        this.registerPackets();
         this.registerPacketHandlers();
     }
 
     /**
-     * Retrieves a {@link org.terracottamc.network.packet.Packet} by their id
+     * Retrieves a {@link org.terracottamc.network.packet.Packet} of the current protocol version by their id
      *
      * @param packetId which is used to retrieve the {@link org.terracottamc.network.packet.Packet}
      *
-     * @return a fresh {@link org.terracottamc.network.packet.Packet}
+     * @return a fresh {@link org.terracottamc.network.packet.Packet} or null, when the id is not registered
      */
     public Packet retrievePacketById(final int packetId) {
-        switch (packetId) {
-            case Protocol.LOGIN_PACKET:
-                return new LoginPacket();
-            case Protocol.PLAY_STATUS_PACKET:
-                return new PlayStatusPacket();
-            case Protocol.DISCONNECT_PACKET:
-                return new DisconnectPacket();
-            case Protocol.RESOURCE_PACKS_INFO_PACKET:
-                return new ResourcePacksInfoPacket();
-            case Protocol.RESOURCE_PACK_STACK_PACKET:
-                return new ResourcePackStackPacket();
-            case Protocol.RESOURCE_PACK_CLIENT_RESPONSE_PACKET:
-                return new ResourcePackClientResponsePacket();
-            case Protocol.TEXT_PACKET:
-                return new TextPacket();
-            case Protocol.SET_TIME_PACKET:
-                return new SetTimePacket();
-            case Protocol.TICK_SYNC_PACKET:
-                return new TickSyncPacket();
-            case Protocol.SET_ENTITY_DATA_PACKET:
-                return new SetEntityDataPacket();
-            case Protocol.REQUEST_CHUNK_RADIUS_PACKET:
-                return new RequestChunkRadiusPacket();
-            case Protocol.CHUNK_RADIUS_UPDATED_PACKET:
-                return new ChunkRadiusUpdatedPacket();
-            case Protocol.START_GAME_PACKET:
-                return new StartGamePacket();
-            case Protocol.RESOURCE_PACK_DATA_INFO_PACKET:
-                return new ResourcePackDataInfoPacket();
-            case Protocol.RESOURCE_PACK_CHUNK_DATA_PACKET:
-                return new ResourcePackChunkDataPacket();
-            case Protocol.RESOURCE_PACK_CHUNK_REQUEST_PACKET:
-                return new ResourcePackChunkRequestPacket();
-            case Protocol.SET_LOCAL_PLAYER_AS_INITIALIZED_PACKET:
-                return new SetLocalPlayerAsInitializedPacket();
-            case Protocol.AVAILABLE_ENTITY_IDENTIFIERS_PACKET:
-                return new AvailableEntityIdentifiersPacket();
-            case Protocol.BIOME_DEFINITION_LIST_PACKET:
-                return new BiomeDefinitionListPacket();
-            case Protocol.CLIENT_CACHE_STATUS_PACKET:
-                return new ClientCacheStatusPacket();
-            case Protocol.CREATIVE_CONTENT_PACKET:
-                return new CreativeContentPacket();
-            case Protocol.VIOLATION_WARNING_PACKET:
-                return new ViolationWarningPacket();
+        final PacketDefinition<? extends Packet> packetDefinition =
+                this.retrievePacketDefinition(Protocol.CURRENT_PROTOCOL, packetId);
+
+        return packetDefinition != null ? packetDefinition.createPacket() : null;
+    }
+
+    /**
+     * Retrieves the {@link org.terracottamc.network.packet.registry.PacketDefinition} of the given packet id.
+     * Unknown protocol versions, for example before the login has been completed, fall back to the current one
+     *
+     * @param protocolVersion which represents the protocol version of the client
+     * @param packetId        which is used to retrieve the {@link org.terracottamc.network.packet.registry.PacketDefinition}
+     *
+     * @return a fresh {@link org.terracottamc.network.packet.registry.PacketDefinition} or null,
+     * when the id is not registered
+     */
+    public PacketDefinition<? extends Packet> retrievePacketDefinition(final int protocolVersion, final int packetId) {
+        return this.packetDefinitions[this.retrieveProtocolIndex(protocolVersion)][packetId & 0x3FF];
+    }
+
+    /**
+     * Registers the given {@link org.terracottamc.network.packet.registry.PacketDefinition} for all supported
+     * protocol versions and replaces the previous definition of the same packet id
+     *
+     * @param packetDefinition which should be registered
+     */
+    public void registerPacket(final PacketDefinition<? extends Packet> packetDefinition) {
+        for (final PacketDefinition<? extends Packet>[] packetDefinitions : this.packetDefinitions) {
+            packetDefinitions[packetDefinition.getPacketId() & 0x3FF] = packetDefinition;
         }
+    }
 
-        return null;
+    /**
+     * Registers the given {@link org.terracottamc.network.packet.registry.PacketDefinition} for a single
+     * protocol version and replaces the previous definition of the same packet id
+     *
+     * @param protocolVersion  which represents the protocol version the definition is used for
+     * @param packetDefinition which should be registered
+     */
+    public void registerPacket(final int protocolVersion, final PacketDefinition<? extends Packet> packetDefinition) {
+        this.packetDefinitions[this.retrieveProtocolIndex(protocolVersion)]
+                [packetDefinition.getPacketId() & 0x3FF] = packetDefinition;
+    }
+
+    /**
+     * Registers the given {@link org.terracottamc.network.packet.handler.IPacketHandler} for the given packet id
+     * of all supported protocol versions and replaces the previous handler
+     *
+     * @param packetId      which represents the id of the {@link org.terracottamc.network.packet.Packet}
+     * @param packetHandler which should be registered
+     * @param <T>           which represents the type of the {@link org.terracottamc.network.packet.Packet}
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Packet> void registerPacketHandler(final int packetId, final IPacketHandler<T> packetHandler) {
+        for (final PacketDefinition<? extends Packet>[] packetDefinitions : this.packetDefinitions) {
+            final PacketDefinition<T> packetDefinition = (PacketDefinition<T>) packetDefinitions[packetId & 0x3FF];
+
+            if (packetDefinition == null) {
+                throw new IllegalArgumentException("There is no packet registered with the id 0x" +
+                        Integer.toHexString(packetId));
+            }
+
+            packetDefinition.setPacketHandler(packetHandler);
+        }
+    }
+
+    /**
+     * Enables the pooling of the inbound packets which are sent frequently by the clients.
+     * Pooled packets are handed back by the {@link org.terracottamc.network.raknet.protocol.ProtocolHandler}
+     * once they were handled, so that packet handlers must not keep references to them
+     */
+    public void enablePacketRecycling() {
+        final int[] recyclablePacketIds = new int[]{Protocol.TEXT_PACKET, Protocol.TICK_SYNC_PACKET,
+                Protocol.REQUEST_CHUNK_RADIUS_PACKET, Protocol.RESOURCE_PACK_CHUNK_REQUEST_PACKET,
+                Protocol.RESOURCE_PACK_CLIENT_RESPONSE_PACKET, Protocol.SET_LOCAL_PLAYER_AS_INITIALIZED_PACKET,
+                Protocol.CLIENT_CACHE_STATUS_PACKET, Protocol.VIOLATION_WARNING_PACKET};
+
+        for (final PacketDefinition<? extends Packet>[] packetDefinitions : this.packetDefinitions) {
+            for (final int packetId : recyclablePacketIds) {
+                packetDefinitions[packetId].enableRecycling();
+            }
+        }
     }
 
     /**
-     * Retrieves the {@link org.terracottamc.network.packet.handler.IPacketHandler} by their
-     * {@link org.terracottamc.network.packet.Packet} class
+     * Retrieves the index of the definition table which belongs to the given protocol version
      *
-     * @param clazz which is needed to retrieve the {@link org.terracottamc.network.packet.Packet}
+     * @param protocolVersion which is used to retrieve the index
      *
-     * @return a fresh {@link org.terracottamc.network.packet.handler.IPacketHandler}
+     * @return a fresh index of the definition table
      */
-    public IPacketHandler<? extends Packet> retrievePacketHandlerByClass(final Class<? extends Packet> clazz) {
-        if (this.packetHandlerMap.containsKey(clazz)) {
-            return this.packetHandlerMap.get(clazz);
+    private int retrieveProtocolIndex(final int protocolVersion) {
+        for (int i = 0; i < this.protocolVersions.length; i++) {
+            if (this.protocolVersions[i] == protocolVersion) {
+                return i;
+            }
         }
 
-        return null;
+        return 0;
     }
 
     /**
-     * Registers all packets with their packet handlers
+     * Registers all packets which are known by this {@link org.terracottamc.network.packet.registry.PacketRegistry}.
+     * The larger serverbound packets are decoded lazily, so that they are not decoded on the network thread,
+     * when they are dropped or the session is closed before they are handled
+     */
+    private void registerPackets() {
+        this.registerPacket(new PacketDefinition<>(Protocol.LOGIN_PACKET, LoginPacket::new,
+                PacketDirection.SERVERBOUND).setLazyDecoding(true));
+        this.registerPacket(new PacketDefinition<>(Protocol.PLAY_STATUS_PACKET, PlayStatusPacket::new,
+                PacketDirection.CLIENTBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.SERVER_TO_CLIENT_HANDSHAKE_PACKET,
+                ServerToClientHandshakePacket::new, PacketDirection.CLIENTBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.CLIENT_TO_SERVER_HANDSHAKE_PACKET,
+                ClientToServerHandshakePacket::new, PacketDirection.SERVERBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.DISCONNECT_PACKET, DisconnectPacket::new,
+                PacketDirection.CLIENTBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.RESOURCE_PACKS_INFO_PACKET, ResourcePacksInfoPacket::new,
+                PacketDirection.CLIENTBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.RESOURCE_PACK_STACK_PACKET, ResourcePackStackPacket::new,
+                PacketDirection.CLIENTBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.RESOURCE_PACK_CLIENT_RESPONSE_PACKET,
+                ResourcePackClientResponsePacket::new, PacketDirection.SERVERBOUND).setLazyDecoding(true));
+        this.registerPacket(new PacketDefinition<>(Protocol.TEXT_PACKET, TextPacket::new,
+                PacketDirection.BIDIRECTIONAL).setLazyDecoding(true));
+        this.registerPacket(new PacketDefinition<>(Protocol.SET_TIME_PACKET, SetTimePacket::new,
+                PacketDirection.CLIENTBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.TICK_SYNC_PACKET, TickSyncPacket::new,
+                PacketDirection.BIDIRECTIONAL));
+        this.registerPacket(new PacketDefinition<>(Protocol.SET_ENTITY_DATA_PACKET, SetEntityDataPacket::new,
+                PacketDirection.CLIENTBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.REQUEST_CHUNK_RADIUS_PACKET, RequestChunkRadiusPacket::new,
+                PacketDirection.SERVERBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.CHUNK_RADIUS_UPDATED_PACKET, ChunkRadiusUpdatedPacket::new,
+                PacketDirection.CLIENTBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.START_GAME_PACKET, StartGamePacket::new,
+                PacketDirection.CLIENTBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.RESOURCE_PACK_DATA_INFO_PACKET,
+                ResourcePackDataInfoPacket::new, PacketDirection.CLIENTBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.RESOURCE_PACK_CHUNK_DATA_PACKET,
+                ResourcePackChunkDataPacket::new, PacketDirection.CLIENTBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.RESOURCE_PACK_CHUNK_REQUEST_PACKET,
+                ResourcePackChunkRequestPacket::new, PacketDirection.SERVERBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.SET_LOCAL_PLAYER_AS_INITIALIZED_PACKET,
+                SetLocalPlayerAsInitializedPacket::new, PacketDirection.SERVERBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.AVAILABLE_ENTITY_IDENTIFIERS_PACKET,
+                AvailableEntityIdentifiersPacket::new, PacketDirection.CLIENTBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.BIOME_DEFINITION_LIST_PACKET,
+                BiomeDefinitionListPacket::new, PacketDirection.CLIENTBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.CLIENT_CACHE_STATUS_PACKET, ClientCacheStatusPacket::new,
+                PacketDirection.SERVERBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.NETWORK_SETTINGS_PACKET, NetworkSettingsPacket::new,
+                PacketDirection.CLIENTBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.CREATIVE_CONTENT_PACKET, CreativeContentPacket::new,
+                PacketDirection.CLIENTBOUND));
+        this.registerPacket(new PacketDefinition<>(Protocol.VIOLATION_WARNING_PACKET, ViolationWarningPacket::new,
+                PacketDirection.SERVERBOUND));
+    }
+
+    /**
+     * Registers all packet handlers of this {@link org.terracottamc.network.packet.registry.PacketRegistry}
      */
     private void registerPacketHandlers() {
-        this.packetHandlerMap.put(LoginPacket.class, new LoginPacketHandler());
-        this.packetHandlerMap.put(ResourcePackClientResponsePacket.class, new ResourcePackClientResponsePacketHandler());
-        this.packetHandlerMap.put(RequestChunkRadiusPacket.class, new RequestChunkRadiusPacketHandler());
-        this.packetHandlerMap.put(ResourcePackChunkRequestPacket.class, new ResourcePackChunkRequestPacketHandler());
-        this.packetHandlerMap.put(SetLocalPlayerAsInitializedPacket.class, new SetLocalPlayerAsInitializedPacketHandler());
-        this.packetHandlerMap.put(ViolationWarningPacket.class, new ViolationWarningPacketHandler());
+        final LoginPacketHandler loginPacketHandler = new LoginPacketHandler();
+
+        this.registerPacketHandler(Protocol.LOGIN_PACKET, loginPacketHandler);
+        this.registerPacketHandler(Protocol.CLIENT_TO_SERVER_HANDSHAKE_PACKET,
+                new ClientToServerHandshakePacketHandler(loginPacketHandler));
+        this.registerPacketHandler(Protocol.RESOURCE_PACK_CLIENT_RESPONSE_PACKET,
+                new ResourcePackClientResponsePacketHandler());
+        this.registerPacketHandler(Protocol.REQUEST_CHUNK_RADIUS_PACKET, new RequestChunkRadiusPacketHandler());
+        this.registerPacketHandler(Protocol.RESOURCE_PACK_CHUNK_REQUEST_PACKET,
+                new ResourcePackChunkRequestPacketHandler());
+        this.registerPacketHandler(Protocol.SET_LOCAL_PLAYER_AS_INITIALIZED_PACKET,
+                new SetLocalPlayerAsInitializedPacketHandler());
+        this.registerPacketHandler(Protocol.VIOLATION_WARNING_PACKET, new ViolationWarningPacketHandler());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,60 @@
+package org.terracottamc.network.raknet;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public enum FlushStrategy {
+
+    /**
+     * Coalesces all packets of a server tick into one batch per player, which is flushed at the end of the tick
+     */
+    TICK("Tick"),
+    /**
+     * Flushes every packet as its own batch
+     */
+    IMMEDIATE("Immediate"),
+    /**
+     * Leaves the flushing to the flush tick of the RakNet session
+     */
+    NETWORK("Network");
+
+    private final String identifier;
+
+    FlushStrategy(final String identifier) {
+        this.identifier = identifier;
+    }
+
+    /**
+     * Returns the identifier of this {@link org.terracottamc.network.raknet.FlushStrategy}
+     *
+     * @return a fresh {@link java.lang.String}
+     */
+    public String getIdentifier() {
+        return this.identifier;
+    }
+
+    /**
+     * Retrieves the {@link org.terracottamc.network.raknet.FlushStrategy} by its identifier
+     *
+     * @param identifier which is used to retrieve the {@link org.terracottamc.network.raknet.FlushStrategy}
+     *
+     * @return a fresh {@link org.terracottamc.network.raknet.FlushStrategy} or null
+     */
+    public static FlushStrategy retrieveFlushStrategyByIdentifier(final String identifier) {
+        for (final FlushStrategy flushStrategy : FlushStrategy.values()) {
+            if (flushStrategy.getIdentifier().equalsIgnoreCase(identifier)) {
+                return flushStrategy;
+            }
+        }
+
+        return null;
+    }
+}
@@ -7,7 +7,6 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelConfig;
 import io.netty.channel.ChannelException;
 import io.netty.channel.ChannelFuture;
-import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.DefaultEventLoopGroup;
@@ -23,16 +22,25 @@ import network.ycc.raknet.RakNet;
 import network.ycc.raknet.pipeline.UserDataCodec;
 import network.ycc.raknet.server.channel.RakNetServerChannel;
 import org.terracottamc.network.packet.Protocol;
+import org.terracottamc.network.raknet.compression.CompressionPool;
 import org.terracottamc.network.raknet.compression.PacketCompressor;
 import org.terracottamc.network.raknet.compression.PacketDecompressor;
+import org.terracottamc.network.raknet.encryption.PacketEncryption;
+import org.terracottamc.network.raknet.handler.ConnectionAdmissionHandler;
 import org.terracottamc.network.raknet.handler.ConnectionTimeoutHandler;
+import org.terracottamc.network.raknet.handler.DatagramReceiveCounter;
+import org.terracottamc.network.raknet.handler.PingRateLimiter;
 import org.terracottamc.network.raknet.handler.UnconnectedPingHandler;
+import org.terracottamc.network.raknet.protocol.InboundPacketStatistics;
 import org.terracottamc.network.raknet.protocol.ProtocolDecoder;
 import org.terracottamc.network.raknet.protocol.ProtocolEncoder;
 import org.terracottamc.network.raknet.protocol.ProtocolHandler;
 import org.terracottamc.server.Server;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -49,10 +57,15 @@ import java.util.concurrent.TimeUnit;
 public class RakNetListener {
 
     private final long serverId;
+    private final List<EventLoopGroup> bossGroups = new ArrayList<>();
+    private final List<EventLoopGroup> workerGroups = new ArrayList<>();
+    private final List<ChannelFuture> channelFutures = new ArrayList<>();
+    private final List<DatagramReceiveCounter> datagramReceiveCounters = new ArrayList<>();
+    private final InboundPacketStatistics inboundPacketStatistics = new InboundPacketStatistics();
 
-    private EventLoopGroup bossGroup;
-    private EventLoopGroup workerGroup;
-    private ChannelFuture channelFuture;
+    private CompressionPool compressionPool;
+    private PingRateLimiter pingRateLimiter;
+    private ConnectionAdmissionHandler connectionAdmissionHandler;
 
     /**
      * Creates a new {@link org.terracottamc.network.raknet.RakNetListener} which is used to let the networking work
@@ -65,65 +78,53 @@ public class RakNetListener {
 
     /**
      * Binds this {@link org.terracottamc.network.raknet.RakNetListener}
+     * <p>
+     * When epoll is available, the configured amount of sockets is bound to the same port by using SO_REUSEPORT,
+     * so that the kernel spreads the client flows across them. Every socket owns its own io and worker loop
      */
     public void bind() {
         final Server server = Server.getInstance();
         final InetSocketAddress address = new InetSocketAddress(server.getAddress(), server.getPort());
+        final int socketAmount = Epoll.isAvailable() ? Math.max(1, server.getNetworkSockets()) : 1;
+
+        // a single socket keeps the default amount of threads, multiple sockets are pinned to one loop each
+        final int threadsPerSocket = socketAmount == 1 ? 0 : 1;
+
+        if (server.getCompressionThreads() > 0) {
+            this.compressionPool = new CompressionPool(server.getCompressionThreads(),
+                    server.getCompressionMaxPendingBatches());
+        }
+
+        if (server.getPingRateLimit() > 0) {
+            this.pingRateLimiter = new PingRateLimiter(server.getPingRateLimit());
+        }
+
+        if (server.getConnectionRateLimitPerAddress() > 0 || server.getConnectionRateLimitPerSubnet() > 0) {
+            this.connectionAdmissionHandler = new ConnectionAdmissionHandler(
+                    server.getConnectionRateLimitPerAddress(), server.getConnectionRateLimitPerSubnet());
+        }
 
         try {
-            this.bossGroup = Epoll.isAvailable() ? new EpollEventLoopGroup() : new NioEventLoopGroup();
-            this.workerGroup = new DefaultEventLoopGroup();
-
-            final ServerBootstrap serverBootstrap = new ServerBootstrap()
-                    .group(this.bossGroup, this.workerGroup)
-                    .channelFactory(() -> new RakNetServerChannel(() ->
-                            Epoll.isAvailable() ? new EpollDatagramChannel() : new NioDatagramChannel()))
-                    .option(RakNet.SERVER_ID, serverId)
-                    .handler(new ChannelInitializer<Channel>() {
-                        @Override
-                        protected void initChannel(final Channel channel) {
-                            channel.pipeline().addLast(new UnconnectedPingHandler());
-                        }
-                    })
-                    .childHandler(new ChannelInitializer<Channel>() {
-                        protected void initChannel(final Channel channel) {
-                            final ChannelConfig channelConfig = channel.config();
-                            try {
-                                channelConfig.setOption(ChannelOption.IP_TOS, 0x18);
-                            } catch (final ChannelException ignored) {
-
-                            }
-                            channelConfig.setAllocator(PooledByteBufAllocator.DEFAULT);
-
-                            final RakNet.Config rakNetConfig = (RakNet.Config) channelConfig;
-                            rakNetConfig.setMaxQueuedBytes(8 * 1024 * 1024);
-
-                            channel.pipeline().addFirst(ConnectionTimeoutHandler.NAME,
-                                    new ConnectionTimeoutHandler(15, TimeUnit.SECONDS));
-                            channel.pipeline().addLast(UserDataCodec.NAME, new UserDataCodec(Protocol.BATCH_PACKET));
-                            channel.pipeline().addLast(PacketCompressor.NAME, new PacketCompressor());
-                            channel.pipeline().addLast(PacketDecompressor.NAME, new PacketDecompressor());
-                            channel.pipeline().addLast(ProtocolDecoder.NAME, new ProtocolDecoder());
-                            channel.pipeline().addLast(ProtocolEncoder.NAME, new ProtocolEncoder());
-                            channel.pipeline().addLast(ProtocolHandler.NAME, new ProtocolHandler());
-                        }
-                    });
+            for (int socketIndex = 0; socketIndex < socketAmount; socketIndex++) {
+                final EventLoopGroup bossGroup = Epoll.isAvailable() ? new EpollEventLoopGroup(threadsPerSocket) :
+                        new NioEventLoopGroup(threadsPerSocket);
+                final EventLoopGroup workerGroup = new DefaultEventLoopGroup(threadsPerSocket);
+                final DatagramReceiveCounter datagramReceiveCounter = new DatagramReceiveCounter(socketIndex);
 
-            final ChannelFutureListener channelFutureListener = channelFuture ->
-                    Server.getInstance().getLogger().info("Started Terracotta on " + address.getHostName() + ":" +
-                            address.getPort() + " (Bedrock Edition v" + Protocol.MINECRAFT_VERSION
-                            .replace(Protocol.MINECRAFT_VERSION.split("\\.")[2], "x") + ")");
+                this.bossGroups.add(bossGroup);
+                this.workerGroups.add(workerGroup);
+                this.datagramReceiveCounters.add(datagramReceiveCounter);
 
+                final ServerBootstrap serverBootstrap = this.createServerBootstrap(bossGroup, workerGroup,
+                        datagramReceiveCounter);
 
-            if (this.bossGroup.getClass().equals(EpollEventLoopGroup.class)) {
-                serverBootstrap.option(UnixChannelOption.SO_REUSEPORT, true);
-                serverBootstrap.option(EpollChannelOption.MAX_DATAGRAM_PAYLOAD_SIZE, 4 * 1024);
-            } else {
-                serverBootstrap.option(ChannelOption.RCVBUF_ALLOCATOR,
-                        new AdaptiveRecvByteBufAllocator(4 * 1024, 64 * 1024, 256 * 1024));
+                this.channelFutures.add(serverBootstrap.bind(address).sync());
             }
 
-            this.channelFuture = serverBootstrap.bind(address).addListener(channelFutureListener).sync();
+            Server.getInstance().getLogger().info("Started Terracotta on " + address.getHostName() + ":" +
+                    address.getPort() + " (Bedrock Edition v" + Protocol.MINECRAFT_VERSION
+                    .replace(Protocol.MINECRAFT_VERSION.split("\\.")[2], "x") + ")" +
+                    (socketAmount > 1 ? " using " + socketAmount + " sockets" : ""));
         } catch (final InterruptedException e) {
             e.printStackTrace();
         }
@@ -134,12 +135,151 @@ public class RakNetListener {
      */
     public void close() {
         try {
-            this.channelFuture.channel().closeFuture().sync();
+            for (final ChannelFuture channelFuture : this.channelFutures) {
+                channelFuture.channel().close().sync();
+            }
         } catch (final InterruptedException ignored) {
 
         } finally {
-            this.workerGroup.shutdownGracefully();
-            this.bossGroup.shutdownGracefully();
+            for (final EventLoopGroup workerGroup : this.workerGroups) {
+                workerGroup.shutdownGracefully();
+            }
+
+            for (final EventLoopGroup bossGroup : this.bossGroups) {
+                bossGroup.shutdownGracefully();
+            }
+
+            if (this.compressionPool != null) {
+                this.compressionPool.close();
+            }
         }
     }
+
+    /**
+     * Retrieves the receive counters of all sockets bound by this {@link org.terracottamc.network.raknet.RakNetListener}
+     * which can be used to check how well the kernel balances the clients across the sockets
+     *
+     * @return a fresh unmodifiable {@link java.util.List} of {@link org.terracottamc.network.raknet.handler.DatagramReceiveCounter}
+     */
+    public List<DatagramReceiveCounter> getDatagramReceiveCounters() {
+        return Collections.unmodifiableList(this.datagramReceiveCounters);
+    }
+
+    /**
+     * Retrieves the {@link org.terracottamc.network.raknet.protocol.InboundPacketStatistics} which count the
+     * unknown and dropped packets of all connections
+     *
+     * @return a fresh {@link org.terracottamc.network.raknet.protocol.InboundPacketStatistics}
+     */
+    public InboundPacketStatistics getInboundPacketStatistics() {
+        return this.inboundPacketStatistics;
+    }
+
+    /**
+     * Retrieves the {@link org.terracottamc.network.raknet.compression.CompressionPool} which compresses the
+     * outgoing batches off the event loops
+     *
+     * @return a fresh {@link org.terracottamc.network.raknet.compression.CompressionPool} or null,
+     * when the batches are compressed on the event loops
+     */
+    public CompressionPool getCompressionPool() {
+        return this.compressionPool;
+    }
+
+    /**
+     * Retrieves the {@link org.terracottamc.network.raknet.handler.PingRateLimiter} which drops the unconnected pings
+     * of addresses that ping too often
+     *
+     * @return a fresh {@link org.terracottamc.network.raknet.handler.PingRateLimiter} or null,
+     * when the pings are not limited
+     */
+    public PingRateLimiter getPingRateLimiter() {
+        return this.pingRateLimiter;
+    }
+
+    /**
+     * Retrieves the {@link org.terracottamc.network.raknet.handler.ConnectionAdmissionHandler} which drops the
+     * connection requests of addresses and subnets that open sessions too often
+     *
+     * @return a fresh {@link org.terracottamc.network.raknet.handler.ConnectionAdmissionHandler} or null,
+     * when the connections are not limited
+     */
+    public ConnectionAdmissionHandler getConnectionAdmissionHandler() {
+        return this.connectionAdmissionHandler;
+    }
+
+    /**
+     * Creates a {@link io.netty.bootstrap.ServerBootstrap} for a single socket of this
+     * {@link org.terracottamc.network.raknet.RakNetListener}
+     *
+     * @param bossGroup              which handles the io of the socket
+     * @param workerGroup            which handles the RakNet sessions of the socket
+     * @param datagramReceiveCounter which counts the datagrams received by the socket
+     *
+     * @return a fresh {@link io.netty.bootstrap.ServerBootstrap}
+     */
+    private ServerBootstrap createServerBootstrap(final EventLoopGroup bossGroup, final EventLoopGroup workerGroup,
+                                                  final DatagramReceiveCounter datagramReceiveCounter) {
+        final ServerBootstrap serverBootstrap = new ServerBootstrap()
+                .group(bossGroup, workerGroup)
+                .channelFactory(() -> new RakNetServerChannel(() ->
+                        Epoll.isAvailable() ? new EpollDatagramChannel() : new NioDatagramChannel()))
+                .option(RakNet.SERVER_ID, this.serverId)
+                .handler(new ChannelInitializer<Channel>() {
+                    @Override
+                    protected void initChannel(final Channel channel) {
+                        channel.pipeline().addFirst(DatagramReceiveCounter.NAME, datagramReceiveCounter);
+
+                        if (RakNetListener.this.pingRateLimiter != null) {
+                            channel.pipeline().addAfter(DatagramReceiveCounter.NAME, PingRateLimiter.NAME,
+                                    RakNetListener.this.pingRateLimiter);
+                        }
+
+                        if (RakNetListener.this.connectionAdmissionHandler != null) {
+                            channel.pipeline().addAfter(DatagramReceiveCounter.NAME, ConnectionAdmissionHandler.NAME,
+                                    RakNetListener.this.connectionAdmissionHandler);
+                        }
+
+                        channel.pipeline().addLast(new UnconnectedPingHandler());
+                    }
+                })
+                .childHandler(new ChannelInitializer<Channel>() {
+                    protected void initChannel(final Channel channel) {
+                        final ChannelConfig channelConfig = channel.config();
+                        try {
+                            channelConfig.setOption(ChannelOption.IP_TOS, 0x18);
+                        } catch (final ChannelException ignored) {
+
+                        }
+                        channelConfig.setAllocator(PooledByteBufAllocator.DEFAULT);
+
+                        final RakNet.Config rakNetConfig = (RakNet.Config) channelConfig;
+                        rakNetConfig.setMaxQueuedBytes(8 * 1024 * 1024);
+
+                        channel.pipeline().addFirst(ConnectionTimeoutHandler.NAME,
+                                new ConnectionTimeoutHandler(15, TimeUnit.SECONDS));
+                        channel.pipeline().addLast(UserDataCodec.NAME, new UserDataCodec(Protocol.BATCH_PACKET));
+
+                        if (Server.getInstance().isEncryption()) {
+                            channel.pipeline().addLast(PacketEncryption.NAME, new PacketEncryption());
+                        }
+
+                        channel.pipeline().addLast(PacketCompressor.NAME, new PacketCompressor(RakNetListener.this.compressionPool));
+                        channel.pipeline().addLast(PacketDecompressor.NAME, new PacketDecompressor());
+                        channel.pipeline().addLast(ProtocolDecoder.NAME, new ProtocolDecoder(RakNetListener.this.inboundPacketStatistics));
+                        channel.pipeline().addLast(ProtocolEncoder.NAME, new ProtocolEncoder());
+                        channel.pipeline().addLast(ProtocolHandler.NAME, new ProtocolHandler());
+                    }
+                });
+
+        if (bossGroup instanceof EpollEventLoopGroup) {
+            serverBootstrap.option(UnixChannelOption.SO_REUSEPORT, true);
+            serverBootstrap.option(EpollChannelOption.MAX_DATAGRAM_PAYLOAD_SIZE, 4 * 1024);
+        } else {
+            serverBootstrap.option(ChannelOption.RCVBUF_ALLOCATOR,
+                    new AdaptiveRecvByteBufAllocator(4 * 1024, 64 * 1024, 256 * 1024));
+        }
+
+        return serverBootstrap;
+    }
 }
\ No newline at end of file
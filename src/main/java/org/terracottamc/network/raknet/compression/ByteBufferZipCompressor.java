@@ -0,0 +1,229 @@
+package org.terracottamc.network.raknet.compression;
+
+import io.netty.buffer.ByteBuf;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class ByteBufferZipCompressor implements ICompressor {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    // the overloads are bound at runtime, so that the project still compiles against the Java 8 api
+    private static final MethodHandle DEFLATER_SET_INPUT;
+    private static final MethodHandle DEFLATER_DEFLATE;
+    private static final MethodHandle INFLATER_SET_INPUT;
+    private static final MethodHandle INFLATER_INFLATE;
+
+    static {
+        final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+        MethodHandle deflaterSetInput = null;
+        MethodHandle deflaterDeflate = null;
+        MethodHandle inflaterSetInput = null;
+        MethodHandle inflaterInflate = null;
+
+        try {
+            deflaterSetInput = lookup.findVirtual(Deflater.class, "setInput",
+                    MethodType.methodType(void.class, ByteBuffer.class));
+            deflaterDeflate = lookup.findVirtual(Deflater.class, "deflate",
+                    MethodType.methodType(int.class, ByteBuffer.class));
+            inflaterSetInput = lookup.findVirtual(Inflater.class, "setInput",
+                    MethodType.methodType(void.class, ByteBuffer.class));
+            inflaterInflate = lookup.findVirtual(Inflater.class, "inflate",
+                    MethodType.methodType(int.class, ByteBuffer.class));
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            // the overloads are not available before Java 11
+            deflaterSetInput = null;
+            deflaterDeflate = null;
+            inflaterSetInput = null;
+            inflaterInflate = null;
+        }
+
+        DEFLATER_SET_INPUT = deflaterSetInput;
+        DEFLATER_DEFLATE = deflaterDeflate;
+        INFLATER_SET_INPUT = inflaterSetInput;
+        INFLATER_INFLATE = inflaterInflate;
+    }
+
+    private final boolean compress;
+    private final Deflater deflater;
+    private final Inflater inflater;
+
+    /**
+     * Creates a new {@link org.terracottamc.network.raknet.compression.ByteBufferZipCompressor} which deflates and
+     * inflates straight between the memory of the given {@link io.netty.buffer.ByteBuf} instances.
+     * This requires the {@link java.nio.ByteBuffer} overloads of {@link java.util.zip.Deflater}
+     * and {@link java.util.zip.Inflater} which are available since Java 11, see {@link #isAvailable()}.
+     * The output {@link io.netty.buffer.ByteBuf} has to be backed by a single memory region
+     *
+     * @param compress whether this compressor should compress or decompress
+     * @param level    which represents the deflate level
+     * @param raw      whether the raw deflate format without zlib header should be used
+     */
+    public ByteBufferZipCompressor(final boolean compress, final int level, final boolean raw) {
+        this.compress = compress;
+
+        if (compress) {
+            this.deflater = new Deflater(level, raw);
+            this.inflater = null;
+        } else {
+            this.deflater = null;
+            this.inflater = new Inflater(raw);
+        }
+    }
+
+    /**
+     * Checks whether the {@link java.nio.ByteBuffer} overloads of {@link java.util.zip.Deflater}
+     * and {@link java.util.zip.Inflater} are available on the running Java version
+     *
+     * @return true, when this compressor can be used, otherwise false
+     */
+    public static boolean isAvailable() {
+        return ByteBufferZipCompressor.INFLATER_INFLATE != null;
+    }
+
+    @Override
+    public void process(final ByteBuf inputBuffer, final ByteBuf outputBuffer) throws DataFormatException {
+        final int readableBytes = inputBuffer.readableBytes();
+
+        if (this.compress && this.deflater != null) {
+            try {
+                for (final ByteBuffer input : inputBuffer.nioBuffers()) {
+                    this.setDeflaterInput(input);
+
+                    while (!this.deflater.needsInput()) {
+                        this.deflate(outputBuffer);
+                    }
+                }
+
+                this.deflater.finish();
+
+                while (!this.deflater.finished()) {
+                    this.deflate(outputBuffer);
+                }
+            } finally {
+                this.deflater.reset();
+            }
+        } else {
+            if (this.inflater != null) {
+                try {
+                    for (final ByteBuffer input : inputBuffer.nioBuffers()) {
+                        this.setInflaterInput(input);
+
+                        while (!this.inflater.finished() && !this.inflater.needsInput()) {
+                            if (this.inflate(outputBuffer) == 0 && this.inflater.needsDictionary()) {
+                                throw new DataFormatException("A preset dictionary is not supported");
+                            }
+                        }
+                    }
+                } finally {
+                    this.inflater.reset();
+                }
+            }
+        }
+
+        inputBuffer.skipBytes(readableBytes);
+    }
+
+    @Override
+    public void setCompressionLevel(final int compressionLevel) {
+        if (this.deflater != null) {
+            this.deflater.setLevel(compressionLevel);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this.compress && this.deflater != null) {
+            this.deflater.end();
+        } else {
+            if (this.inflater != null) {
+                this.inflater.end();
+            }
+        }
+    }
+
+    private void deflate(final ByteBuf outputBuffer) {
+        outputBuffer.ensureWritable(ByteBufferZipCompressor.CHUNK_SIZE);
+
+        final int writerIndex = outputBuffer.writerIndex();
+        final ByteBuffer output = outputBuffer.nioBuffer(writerIndex, outputBuffer.writableBytes());
+
+        outputBuffer.writerIndex(writerIndex + this.invokeDeflate(output));
+    }
+
+    private int inflate(final ByteBuf outputBuffer) throws DataFormatException {
+        final int maxWritableBytes = outputBuffer.maxWritableBytes();
+
+        if (maxWritableBytes == 0) {
+            throw new DataFormatException("The inflated data exceeds " + outputBuffer.maxCapacity() + " bytes");
+        }
+
+        outputBuffer.ensureWritable(Math.min(ByteBufferZipCompressor.CHUNK_SIZE, maxWritableBytes));
+
+        final int writerIndex = outputBuffer.writerIndex();
+        final ByteBuffer output = outputBuffer.nioBuffer(writerIndex, outputBuffer.writableBytes());
+        final int inflatedBytes = this.invokeInflate(output);
+
+        outputBuffer.writerIndex(writerIndex + inflatedBytes);
+
+        return inflatedBytes;
+    }
+
+    private void setDeflaterInput(final ByteBuffer input) {
+        try {
+            ByteBufferZipCompressor.DEFLATER_SET_INPUT.invokeExact(this.deflater, input);
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable throwable) {
+            throw new IllegalStateException(throwable);
+        }
+    }
+
+    private int invokeDeflate(final ByteBuffer output) {
+        try {
+            return (int) ByteBufferZipCompressor.DEFLATER_DEFLATE.invokeExact(this.deflater, output);
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable throwable) {
+            throw new IllegalStateException(throwable);
+        }
+    }
+
+    private void setInflaterInput(final ByteBuffer input) {
+        try {
+            ByteBufferZipCompressor.INFLATER_SET_INPUT.invokeExact(this.inflater, input);
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable throwable) {
+            throw new IllegalStateException(throwable);
+        }
+    }
+
+    private int invokeInflate(final ByteBuffer output) throws DataFormatException {
+        try {
+            return (int) ByteBufferZipCompressor.INFLATER_INFLATE.invokeExact(this.inflater, output);
+        } catch (final DataFormatException | RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable throwable) {
+            throw new IllegalStateException(throwable);
+        }
+    }
+}
\ No newline at end of file
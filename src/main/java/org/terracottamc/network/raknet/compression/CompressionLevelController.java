@@ -0,0 +1,240 @@
+package org.terracottamc.network.raknet.compression;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.FastThreadLocal;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class CompressionLevelController {
+
+    private static final int MINIMUM_LEVEL = 1;
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // the share of a window the compressing thread spent on deflating
+    private static final double HIGH_BUSY_FRACTION = 0.5;
+    private static final double MEDIUM_BUSY_FRACTION = 0.25;
+    private static final double LOW_BUSY_FRACTION = 0.1;
+
+    // the average time a probe waited until the event loop ran it, which grows with everything the loop does
+    private static final long HIGH_LOOP_LAG_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long MEDIUM_LOOP_LAG_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long LOW_LOOP_LAG_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+    private static final long PROBE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    // data which does not shrink below this ratio is not worth a higher level
+    private static final double INCOMPRESSIBLE_RATIO = 0.9;
+
+    // outbound rate from which on a connection is worth spending more cpu to save bandwidth
+    private static final long HEAVY_BYTES_PER_SECOND = 256 * 1024;
+
+    private static final FastThreadLocal<ThreadLoad> THREAD_LOAD = new FastThreadLocal<ThreadLoad>() {
+        @Override
+        protected ThreadLoad initialValue() {
+            return new ThreadLoad();
+        }
+    };
+
+    private static final FastThreadLocal<EventLoopLoad> EVENT_LOOP_LOAD = new FastThreadLocal<EventLoopLoad>() {
+        @Override
+        protected EventLoopLoad initialValue() {
+            return new EventLoopLoad();
+        }
+    };
+
+    private final int maximumLevel;
+    private final boolean adaptive;
+
+    private volatile EventLoopLoad eventLoopLoad;
+
+    private int compressionLevel;
+    private long windowStart = System.nanoTime();
+    private long windowUncompressedBytes;
+    private long windowCompressedBytes;
+
+    /**
+     * Creates a new {@link org.terracottamc.network.raknet.compression.CompressionLevelController}
+     *
+     * @param maximumLevel which is the highest deflate level that may be picked
+     * @param adaptive     whether the level should be adapted or stay at the maximum level
+     */
+    public CompressionLevelController(final int maximumLevel, final boolean adaptive) {
+        this.maximumLevel = Math.max(CompressionLevelController.MINIMUM_LEVEL, maximumLevel);
+        this.adaptive = adaptive;
+        this.compressionLevel = this.maximumLevel;
+    }
+
+    /**
+     * Retrieves the deflate level which should be used for the next batch
+     *
+     * @return a fresh compression level
+     */
+    public int getCompressionLevel() {
+        return this.compressionLevel;
+    }
+
+    /**
+     * Samples how busy the given event loop is. Every few milliseconds a probe is submitted to the loop
+     * which measures how long it waited behind the other work of the loop, like decoding, logins and writes.
+     * This has to be called on the event loop of the connection
+     *
+     * @param executor which represents the event loop of the connection
+     */
+    public void sampleEventLoop(final EventExecutor executor) {
+        if (!this.adaptive) {
+            return;
+        }
+
+        EventLoopLoad eventLoopLoad = this.eventLoopLoad;
+
+        if (eventLoopLoad == null) {
+            eventLoopLoad = CompressionLevelController.EVENT_LOOP_LOAD.get();
+
+            this.eventLoopLoad = eventLoopLoad;
+        }
+
+        eventLoopLoad.sample(executor);
+    }
+
+    /**
+     * Records a compressed batch and adapts the compression level once the current window has passed.
+     * The level is lowered, when either the compressing thread spends a large share of the window on deflating
+     * or the event loop of the connection lags behind, see {@link #sampleEventLoop(EventExecutor)}.
+     * This method has to be called on the thread which compressed the batch
+     *
+     * @param uncompressedBytes which represents the size of the batch before the compression
+     * @param compressedBytes   which represents the size of the batch after the compression
+     * @param compressionNanos  that is the time which was needed to compress the batch
+     */
+    public void record(final int uncompressedBytes, final int compressedBytes, final long compressionNanos) {
+        final long now = System.nanoTime();
+        final ThreadLoad threadLoad = CompressionLevelController.THREAD_LOAD.get();
+
+        threadLoad.record(now, compressionNanos);
+
+        if (!this.adaptive) {
+            return;
+        }
+
+        this.windowUncompressedBytes += uncompressedBytes;
+        this.windowCompressedBytes += compressedBytes;
+
+        final long windowNanos = now - this.windowStart;
+
+        if (windowNanos < CompressionLevelController.WINDOW_NANOS) {
+            return;
+        }
+
+        final double busyFraction = threadLoad.getBusyFraction();
+        final long loopLagNanos = this.eventLoopLoad != null ? this.eventLoopLoad.getAverageLagNanos() : 0;
+        final double compressionRatio = (double) this.windowCompressedBytes / Math.max(1, this.windowUncompressedBytes);
+        final long bytesPerSecond = this.windowUncompressedBytes * CompressionLevelController.WINDOW_NANOS / windowNanos;
+
+        int level = this.compressionLevel;
+
+        if (busyFraction >= CompressionLevelController.HIGH_BUSY_FRACTION ||
+                loopLagNanos >= CompressionLevelController.HIGH_LOOP_LAG_NANOS) {
+            level -= 2;
+        } else if (busyFraction >= CompressionLevelController.MEDIUM_BUSY_FRACTION ||
+                loopLagNanos >= CompressionLevelController.MEDIUM_LOOP_LAG_NANOS) {
+            level--;
+        } else if (compressionRatio >= CompressionLevelController.INCOMPRESSIBLE_RATIO) {
+            level = CompressionLevelController.MINIMUM_LEVEL;
+        } else if (busyFraction < CompressionLevelController.LOW_BUSY_FRACTION &&
+                loopLagNanos < CompressionLevelController.LOW_LOOP_LAG_NANOS) {
+            level += bytesPerSecond >= CompressionLevelController.HEAVY_BYTES_PER_SECOND ? 2 : 1;
+        }
+
+        this.compressionLevel = Math.max(CompressionLevelController.MINIMUM_LEVEL, Math.min(this.maximumLevel, level));
+        this.windowStart = now;
+        this.windowUncompressedBytes = 0;
+        this.windowCompressedBytes = 0;
+    }
+
+    /**
+     * Tracks how much time a single thread spends on compressing, which is shared by all connections
+     * whose batches are compressed on that thread
+     */
+    private static class ThreadLoad {
+
+        private long windowStart = System.nanoTime();
+        private long busyNanos;
+        private double busyFraction;
+
+        private void record(final long now, final long compressionNanos) {
+            this.busyNanos += compressionNanos;
+
+            final long windowNanos = now - this.windowStart;
+
+            if (windowNanos >= CompressionLevelController.WINDOW_NANOS) {
+                this.busyFraction = (double) this.busyNanos / windowNanos;
+                this.busyNanos = 0;
+                this.windowStart = now;
+            }
+        }
+
+        private double getBusyFraction() {
+            return this.busyFraction;
+        }
+    }
+
+    /**
+     * Tracks how long the probes of a single event loop waited until they were run, which is shared by all
+     * connections of that loop. A probe is only submitted while batches are flushed, so that an idle loop
+     * is not woken up
+     */
+    private static class EventLoopLoad implements Runnable {
+
+        private long windowStart = System.nanoTime();
+        private long lastProbeTime;
+        private long probeSubmitTime;
+        private boolean probePending;
+        private long lagNanos;
+        private int probes;
+        private volatile long averageLagNanos;
+
+        private void sample(final EventExecutor executor) {
+            final long now = System.nanoTime();
+
+            if (this.probePending || now - this.lastProbeTime < CompressionLevelController.PROBE_INTERVAL_NANOS) {
+                return;
+            }
+
+            this.probePending = true;
+            this.probeSubmitTime = now;
+
+            executor.execute(this);
+        }
+
+        @Override
+        public void run() {
+            final long now = System.nanoTime();
+
+            this.probePending = false;
+            this.lastProbeTime = now;
+            this.lagNanos += now - this.probeSubmitTime;
+            this.probes++;
+
+            if (now - this.windowStart >= CompressionLevelController.WINDOW_NANOS) {
+                this.averageLagNanos = this.lagNanos / this.probes;
+                this.lagNanos = 0;
+                this.probes = 0;
+                this.windowStart = now;
+            }
+        }
+
+        private long getAverageLagNanos() {
+            return this.averageLagNanos;
+        }
+    }
+}
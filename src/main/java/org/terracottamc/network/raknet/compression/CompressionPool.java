@@ -0,0 +1,138 @@
+package org.terracottamc.network.raknet.compression;
+
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class CompressionPool {
+
+    private final DefaultEventExecutorGroup executorGroup;
+    private final int maxPendingBatches;
+    private final AtomicInteger pendingBatches = new AtomicInteger();
+    private final LongAdder completedBatches = new LongAdder();
+    private final LongAdder inlineBatches = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Creates a new {@link org.terracottamc.network.raknet.compression.CompressionPool}
+     *
+     * @param threads           which represents the amount of threads that compress batches
+     * @param maxPendingBatches which represents the amount of batches that may wait for the compression
+     *                          before the pool is considered as saturated
+     */
+    public CompressionPool(final int threads, final int maxPendingBatches) {
+        this.executorGroup = new DefaultEventExecutorGroup(threads, new DefaultThreadFactory("Compression", true));
+        this.maxPendingBatches = maxPendingBatches;
+    }
+
+    /**
+     * Retrieves the {@link io.netty.util.concurrent.EventExecutor} a single channel should use.
+     * Each executor is backed by exactly one thread, so that the batches of a channel keep their order
+     *
+     * @return a fresh {@link io.netty.util.concurrent.EventExecutor}
+     */
+    public EventExecutor next() {
+        return this.executorGroup.next();
+    }
+
+    /**
+     * Tries to reserve a slot for a batch which should be compressed by this
+     * {@link org.terracottamc.network.raknet.compression.CompressionPool}
+     *
+     * @return true, when the batch may be submitted, otherwise false
+     */
+    public boolean tryAcquire() {
+        if (this.pendingBatches.incrementAndGet() > this.maxPendingBatches) {
+            this.pendingBatches.decrementAndGet();
+            this.inlineBatches.increment();
+
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Releases the slot of a batch after it was compressed and records the time from its submission until now
+     *
+     * @param submitTime which represents the {@link java.lang.System#nanoTime()} the batch was submitted at
+     */
+    public void release(final long submitTime) {
+        final long latencyNanos = System.nanoTime() - submitTime;
+
+        this.pendingBatches.decrementAndGet();
+        this.completedBatches.increment();
+        this.totalLatencyNanos.add(latencyNanos);
+        this.maxLatencyNanos.accumulate(latencyNanos);
+    }
+
+    /**
+     * Retrieves the amount of batches which are currently queued or compressed by this pool
+     *
+     * @return a fresh amount of pending batches
+     */
+    public int getPendingBatches() {
+        return this.pendingBatches.get();
+    }
+
+    /**
+     * Retrieves the amount of batches which were compressed by this pool
+     *
+     * @return a fresh amount of completed batches
+     */
+    public long getCompletedBatches() {
+        return this.completedBatches.sum();
+    }
+
+    /**
+     * Retrieves the amount of batches which were compressed on the event loop, because this pool was saturated
+     *
+     * @return a fresh amount of inline compressed batches
+     */
+    public long getInlineBatches() {
+        return this.inlineBatches.sum();
+    }
+
+    /**
+     * Retrieves the average time in nanoseconds a batch needed from its submission until it was compressed
+     *
+     * @return a fresh average latency in nanoseconds
+     */
+    public long getAverageLatencyNanos() {
+        final long completedBatches = this.completedBatches.sum();
+
+        return completedBatches == 0 ? 0 : this.totalLatencyNanos.sum() / completedBatches;
+    }
+
+    /**
+     * Retrieves the highest time in nanoseconds a batch needed from its submission until it was compressed
+     *
+     * @return a fresh maximum latency in nanoseconds
+     */
+    public long getMaxLatencyNanos() {
+        return this.maxLatencyNanos.get();
+    }
+
+    /**
+     * Shuts this {@link org.terracottamc.network.raknet.compression.CompressionPool} down
+     */
+    public void close() {
+        this.executorGroup.shutdownGracefully();
+    }
+}
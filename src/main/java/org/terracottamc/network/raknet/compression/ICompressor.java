@@ -19,12 +19,24 @@ import java.util.zip.DataFormatException;
 public interface ICompressor extends Closeable {
 
     /**
-     * Processes the compression or decompression of this {@link org.terracottamc.network.raknet.compression.ICompressor}
+     * Processes the compression or decompression of this {@link org.terracottamc.network.raknet.compression.ICompressor}.
+     * The output {@link io.netty.buffer.ByteBuf} is grown step by step, so that the decompression never exceeds
+     * its maximum capacity
      *
      * @param inputBuffer  which represents the input {@link io.netty.buffer.ByteBuf}
      * @param outputBuffer which represents the output {@link io.netty.buffer.ByteBuf}
      *
-     * @throws DataFormatException which can be thrown when a data error has been occurred
+     * @throws DataFormatException which can be thrown when a data error has been occurred or the decompressed data
+     *                             does not fit into the maximum capacity of the output buffer
      */
     void process(final ByteBuf inputBuffer, final ByteBuf outputBuffer) throws DataFormatException;
+
+    /**
+     * Updates the level which is used by the next compression of this
+     * {@link org.terracottamc.network.raknet.compression.ICompressor}.
+     * Decompressing instances are ignoring the level
+     *
+     * @param compressionLevel which represents the updated deflate level
+     */
+    void setCompressionLevel(final int compressionLevel);
 }
\ No newline at end of file
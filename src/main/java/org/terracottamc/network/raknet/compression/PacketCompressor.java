@@ -8,8 +8,15 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelOutboundHandlerAdapter;
 import io.netty.channel.ChannelPromise;
 import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.EventExecutor;
 import network.ycc.raknet.pipeline.FlushTickHandler;
+import org.terracottamc.network.raknet.FlushStrategy;
+import org.terracottamc.server.Server;
 
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.Queue;
 import java.util.zip.DataFormatException;
 
 /**
@@ -25,20 +32,65 @@ import java.util.zip.DataFormatException;
  */
 public class PacketCompressor extends ChannelOutboundHandlerAdapter {
     public static final String NAME = "packet-compressor";
+    public static final Object BATCH_FLUSH_SIGNAL = new Object();
 
     private final int componentMaximum = 512;
     private final int poolByteMaximum = 128 * 1024;
 
+    private final int compressionThreshold;
+    private final CompressionLevelController compressionLevelController;
+    private final CompressionPool compressionPool;
+    private final boolean tickAligned;
+    private final Queue<PendingWrite> pendingWrites = new ArrayDeque<>();
+
+    private EventExecutor compressionExecutor;
     private ICompressor compressor;
     private CompositeByteBuf input;
     private CompositeByteBuf output;
     private boolean dirty;
+    private boolean flushRequested;
+    private boolean removed;
+    private int deferredBatches;
+
+    /**
+     * Creates a new {@link org.terracottamc.network.raknet.compression.PacketCompressor}
+     *
+     * @param compressionThreshold which represents the batch size in bytes below which the data is only stored
+     * @param compressionLevel     which represents the highest deflate level that should be used
+     * @param adaptive             whether the deflate level should be adapted to the load and the bandwidth
+     * @param compressionPool      which compresses the batches off the event loop or null to compress them inline
+     * @param tickAligned          whether a batch is only emitted after the {@link #BATCH_FLUSH_SIGNAL} was written,
+     *                             so that the flushes of the RakNet session do not split the batch of a tick
+     */
+    public PacketCompressor(final int compressionThreshold, final int compressionLevel, final boolean adaptive,
+                            final CompressionPool compressionPool, final boolean tickAligned) {
+        this.compressionThreshold = compressionThreshold;
+        this.compressionLevelController = new CompressionLevelController(compressionLevel, adaptive);
+        this.compressionPool = compressionPool;
+        this.tickAligned = tickAligned;
+    }
+
+    /**
+     * Creates a new {@link org.terracottamc.network.raknet.compression.PacketCompressor}
+     * which uses the compression settings of the {@link org.terracottamc.server.Server}
+     *
+     * @param compressionPool which compresses the batches off the event loop or null to compress them inline
+     */
+    public PacketCompressor(final CompressionPool compressionPool) {
+        this(Server.getInstance().getCompressionThreshold(), Server.getInstance().getCompressionLevel(),
+                Server.getInstance().isAdaptiveCompression(), compressionPool,
+                Server.getInstance().getFlushStrategy() == FlushStrategy.TICK);
+    }
 
     @Override
     public void handlerAdded(final ChannelHandlerContext ctx) throws Exception {
         super.handlerAdded(ctx);
 
-        this.compressor = new ZipCompressor(true, 7, true);
+        this.compressor = ZipCompressor.create(true, this.compressionLevelController.getCompressionLevel(), true);
+
+        if (this.compressionPool != null) {
+            this.compressionExecutor = this.compressionPool.next();
+        }
 
         final ByteBufAllocator allocator = ctx.alloc();
 
@@ -48,16 +100,45 @@ public class PacketCompressor extends ChannelOutboundHandlerAdapter {
 
     @Override
     public void handlerRemoved(final ChannelHandlerContext context) throws Exception {
+        this.removed = true;
+
         ReferenceCountUtil.safeRelease(this.output);
         ReferenceCountUtil.safeRelease(this.input);
 
-        this.compressor.close();
+        if (!this.pendingWrites.isEmpty()) {
+            // the executor runs its tasks in order, so the compressor is closed once the pending batches are done
+            final ICompressor compressor = this.compressor;
+
+            this.compressionExecutor.execute(() -> {
+                try {
+                    compressor.close();
+                } catch (final IOException e) {
+                    e.printStackTrace();
+                }
+            });
+
+            PendingWrite pendingWrite;
+
+            while ((pendingWrite = this.pendingWrites.poll()) != null) {
+                pendingWrite.discard();
+            }
+        } else {
+            this.compressor.close();
+        }
 
         super.handlerRemoved(context);
     }
 
     @Override
     public void write(final ChannelHandlerContext ctx, final Object message, final ChannelPromise promise) throws Exception {
+        if (message == PacketCompressor.BATCH_FLUSH_SIGNAL) {
+            this.flushRequested = true;
+
+            promise.trySuccess();
+
+            return;
+        }
+
         if (message instanceof ByteBuf) {
             final ByteBuf buffer = (ByteBuf) message;
 
@@ -90,32 +171,186 @@ public class PacketCompressor extends ChannelOutboundHandlerAdapter {
                 ReferenceCountUtil.safeRelease(message);
             }
         } else {
-            super.write(ctx, message, promise);
+            this.writePassThrough(ctx, message, promise);
         }
     }
 
     @Override
     public void flush(final ChannelHandlerContext ctx) throws Exception {
-        if (this.dirty) {
+        if (this.dirty && (!this.tickAligned || this.flushRequested)) {
             this.flush0(ctx);
         }
 
+        this.flushRequested = false;
+
         super.flush(ctx);
     }
 
+    /**
+     * Writes a message which is not compressed, like the key of the
+     * {@link org.terracottamc.network.raknet.encryption.PacketEncryption}, behind every batch which was written before
+     *
+     * @param ctx     which passes the message on
+     * @param message which should be written
+     * @param promise which is completed once the message was written
+     *
+     * @throws java.util.zip.DataFormatException when the pending batch could not be compressed
+     */
+    private void writePassThrough(final ChannelHandlerContext ctx, final Object message, final ChannelPromise promise)
+            throws DataFormatException {
+        if (this.dirty) {
+            this.flush0(ctx);
+        }
+
+        if (!this.pendingWrites.isEmpty()) {
+            // the message follows the frames which are still compressed
+            this.pendingWrites.offer(new PendingWrite(message, promise, false, true));
+
+            return;
+        }
+
+        ctx.write(message, promise);
+    }
+
     private void flush0(final ChannelHandlerContext ctx) throws DataFormatException {
         this.dirty = false;
 
-        final ByteBufAllocator allocator = ctx.alloc();
-        final ByteBuf output = allocator.directBuffer(this.input.readableBytes() / 4 + 16);
+        this.compressionLevelController.sampleEventLoop(ctx.executor());
 
-        this.compressor.process(this.input, output);
-        this.input.release();
-        this.input = allocator.compositeDirectBuffer(this.componentMaximum);
+        // a deferred batch has to be compressed before the following ones, so that the pool is not used until then
+        if (this.compressionPool != null && this.deferredBatches == 0 && this.compressionPool.tryAcquire()) {
+            final PendingWrite pendingWrite = new PendingWrite(null, null, false, false);
+            final long submitTime = System.nanoTime();
+            // the pool takes over the whole composite buffer, because discarding components would shift a slice
+            final ByteBuf batch = this.input;
+
+            this.input = ctx.alloc().compositeDirectBuffer(this.componentMaximum);
+            this.pendingWrites.offer(pendingWrite);
+
+            this.compressionExecutor.execute(() -> {
+                ByteBuf output = null;
+
+                try {
+                    output = this.compress(ctx, batch);
+                } catch (final Throwable throwable) {
+                    ctx.fireExceptionCaught(throwable);
+                } finally {
+                    batch.release();
+
+                    this.compressionPool.release(submitTime);
+                }
+
+                final ByteBuf frame = output;
+
+                ctx.executor().execute(() -> {
+                    if (this.removed) {
+                        ReferenceCountUtil.safeRelease(frame);
+
+                        return;
+                    }
+
+                    pendingWrite.message = frame;
+                    pendingWrite.completed = true;
+
+                    this.writePendingWrites(ctx);
+                });
+            });
+
+            return;
+        }
+
+        if (!this.pendingWrites.isEmpty()) {
+            // the pool is saturated while a frame of this channel is still compressed there, so that the batch
+            // waits for its turn and is compressed on the event loop afterwards instead of overtaking the frame
+            final ByteBuf batch = this.input;
+
+            this.input = ctx.alloc().compositeDirectBuffer(this.componentMaximum);
+            this.pendingWrites.offer(new PendingWrite(batch, null, true, false));
+            this.deferredBatches++;
+
+            return;
+        }
+
+        // the pool is either disabled or saturated and no frame of this channel is pending, so that
+        // compressing on the event loop does not reorder the frames and slows the producer down
+        final ByteBuf output = this.compress(ctx, this.input);
+
+        // releases the consumed components, so that the composite buffer can be reused for the next batch
+        this.input.discardReadComponents();
 
         ctx.write(output).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
     }
 
+    /**
+     * Writes the pending frames and messages in the order they were queued, until a frame is reached
+     * which is still compressed by the {@link org.terracottamc.network.raknet.compression.CompressionPool}.
+     * This runs on the event loop only, so that a frame is never overtaken by a later one
+     *
+     * @param ctx which passes the frames on
+     */
+    private void writePendingWrites(final ChannelHandlerContext ctx) {
+        PendingWrite pendingWrite;
+
+        while ((pendingWrite = this.pendingWrites.peek()) != null) {
+            if (pendingWrite.uncompressed) {
+                // every frame ahead was compressed already, so that the compressor is not in use anymore
+                final ByteBuf batch = (ByteBuf) pendingWrite.message;
+
+                pendingWrite.message = null;
+                pendingWrite.uncompressed = false;
+                pendingWrite.completed = true;
+
+                this.deferredBatches--;
+
+                try {
+                    pendingWrite.message = this.compress(ctx, batch);
+                } catch (final DataFormatException | RuntimeException e) {
+                    ctx.fireExceptionCaught(e);
+                } finally {
+                    batch.release();
+                }
+            }
+
+            if (!pendingWrite.completed) {
+                break;
+            }
+
+            this.pendingWrites.poll();
+
+            if (pendingWrite.promise != null) {
+                ctx.write(pendingWrite.message, pendingWrite.promise);
+            } else if (pendingWrite.message != null) {
+                ctx.write(pendingWrite.message).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+            }
+        }
+
+        ctx.flush();
+    }
+
+    private ByteBuf compress(final ChannelHandlerContext ctx, final ByteBuf batch) throws DataFormatException {
+        final int uncompressedBytes = batch.readableBytes();
+        final ByteBuf output = ctx.alloc().directBuffer(uncompressedBytes / 4 + 16);
+
+        try {
+            // small batches barely shrink, so they are only stored to save the time needed for deflating
+            this.compressor.setCompressionLevel(uncompressedBytes < this.compressionThreshold ? 0 :
+                    this.compressionLevelController.getCompressionLevel());
+
+            final long startTime = System.nanoTime();
+
+            this.compressor.process(batch, output);
+
+            this.compressionLevelController.record(uncompressedBytes, output.readableBytes(),
+                    System.nanoTime() - startTime);
+        } catch (final DataFormatException | RuntimeException e) {
+            output.release();
+
+            throw e;
+        }
+
+        return output;
+    }
+
     private void writeVarInt(int value, final ByteBuf buffer) {
         while (true) {
             if (0 == (value & ~0x7F)) {
@@ -128,4 +363,31 @@ public class PacketCompressor extends ChannelOutboundHandlerAdapter {
             }
         }
     }
+
+    /**
+     * Represents a frame or message which waits for the frames ahead of it, before it is written
+     */
+    private static class PendingWrite {
+
+        private Object message;
+        private ChannelPromise promise;
+        private boolean uncompressed;
+        private boolean completed;
+
+        private PendingWrite(final Object message, final ChannelPromise promise, final boolean uncompressed,
+                             final boolean completed) {
+            this.message = message;
+            this.promise = promise;
+            this.uncompressed = uncompressed;
+            this.completed = completed;
+        }
+
+        private void discard() {
+            ReferenceCountUtil.safeRelease(this.message);
+
+            if (this.promise != null) {
+                this.promise.tryFailure(new ClosedChannelException());
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -4,8 +4,13 @@ import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageDecoder;
 import io.netty.util.ReferenceCountUtil;
+import org.terracottamc.logging.Logger;
+import org.terracottamc.network.packet.DecodingLimitException;
+import org.terracottamc.network.packet.DecodingLimits;
+import org.terracottamc.server.Server;
 
 import java.util.List;
+import java.util.zip.DataFormatException;
 
 /**
  * Copyright (c) 2021, TerracottaMC
@@ -22,13 +27,35 @@ public class PacketDecompressor extends MessageToMessageDecoder<ByteBuf> {
 
     public static final String NAME = "packet-decompressor";
 
+    private final DecodingLimits decodingLimits;
+    private final Logger logger;
+
     private ICompressor compressor;
 
+    /**
+     * Creates a new {@link org.terracottamc.network.raknet.compression.PacketDecompressor}
+     * which bounds the received batches by the {@link org.terracottamc.network.packet.DecodingLimits} of the server
+     */
+    public PacketDecompressor() {
+        this(Server.getInstance().getDecodingLimits(), Server.getInstance().getLogger());
+    }
+
+    /**
+     * Creates a new {@link org.terracottamc.network.raknet.compression.PacketDecompressor}
+     *
+     * @param decodingLimits which bound the received batches
+     * @param logger         which reports the rejected batches
+     */
+    public PacketDecompressor(final DecodingLimits decodingLimits, final Logger logger) {
+        this.decodingLimits = decodingLimits;
+        this.logger = logger;
+    }
+
     @Override
     public void handlerAdded(final ChannelHandlerContext ctx) throws Exception {
         super.handlerAdded(ctx);
 
-        this.compressor = new ZipCompressor(false, 0, true);
+        this.compressor = ZipCompressor.create(false, 0, true);
     }
 
     @Override
@@ -40,25 +67,71 @@ public class PacketDecompressor extends MessageToMessageDecoder<ByteBuf> {
 
     @Override
     protected void decode(final ChannelHandlerContext ctx, final ByteBuf buffer, final List<Object> out) throws Exception {
+        final int maxDecompressedBatchSize = this.decodingLimits.getMaxDecompressedBatchSize();
         ByteBuf output = null;
 
         try {
-            output = ctx.alloc().ioBuffer(buffer.readableBytes() << 2);
+            // the output grows in steps while inflating and can never exceed the limit of a decompressed batch
+            output = ctx.alloc().ioBuffer(Math.min(buffer.readableBytes() << 2, maxDecompressedBatchSize),
+                    maxDecompressedBatchSize);
+
+            try {
+                this.compressor.process(buffer, output);
+            } catch (final DataFormatException e) {
+                if (output.maxWritableBytes() > 0) {
+                    throw e;
+                }
+
+                throw this.decodingLimits.violation(-1, "The batch exceeds " + maxDecompressedBatchSize +
+                        " bytes after decompression");
+            }
 
-            this.compressor.process(buffer, output);
+            final int maxPacketsPerBatch = this.decodingLimits.getMaxPacketsPerBatch();
 
             while (output.isReadable()) {
-                out.add(output.readRetainedSlice(this.readVarInt(output)));
+                if (out.size() == maxPacketsPerBatch) {
+                    throw this.decodingLimits.violation(-1, "The batch contains more than " + maxPacketsPerBatch +
+                            " packets");
+                }
+
+                final int packetLength = this.readVarInt(output);
+
+                if (packetLength < 0 || packetLength > output.readableBytes()) {
+                    throw this.decodingLimits.violation(-1, "A packet of the batch claims " + packetLength +
+                            " bytes, but only " + output.readableBytes() + " bytes are left");
+                }
+
+                // the packets are slices of the decompressed batch, which is released once all of them are released
+                out.add(output.readRetainedSlice(packetLength));
             }
+        } catch (final DecodingLimitException e) {
+            for (final Object packet : out) {
+                ReferenceCountUtil.safeRelease(packet);
+            }
+
+            out.clear();
+
+            this.rejectBatch(ctx, e);
         } finally {
             ReferenceCountUtil.safeRelease(output);
         }
     }
 
+    private void rejectBatch(final ChannelHandlerContext ctx, final DecodingLimitException decodingLimitException) {
+        this.logger.error("Disconnecting " + ctx.channel().remoteAddress() + ": " +
+                decodingLimitException.getMessage());
+
+        ctx.close();
+    }
+
     private int readVarInt(final ByteBuf buffer) {
         int value = 0;
 
-        for (int shift = 0; 35 >= shift; shift += 7) {
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!buffer.isReadable()) {
+                throw this.decodingLimits.violation(-1, "The length of a packet of the batch is truncated");
+            }
+
             final byte head = buffer.readByte();
 
             value |= (head & 0x7F) << shift;
@@ -68,6 +141,6 @@ public class PacketDecompressor extends MessageToMessageDecoder<ByteBuf> {
             }
         }
 
-        throw new ArithmeticException("The VarInt is wider than 35-bit");
+        throw this.decodingLimits.violation(-1, "The length of a packet of the batch is wider than 5 bytes");
     }
 }
\ No newline at end of file
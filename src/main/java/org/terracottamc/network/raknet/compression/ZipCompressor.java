@@ -36,6 +36,25 @@ public class ZipCompressor implements ICompressor {
         }
     }
 
+    /**
+     * Creates the fastest {@link org.terracottamc.network.raknet.compression.ICompressor} that is available
+     * on the running Java version. Since Java 11 the data is processed straight between the buffers,
+     * otherwise it is staged through a byte array
+     *
+     * @param compress whether the compressor should compress or decompress
+     * @param level    which represents the deflate level
+     * @param raw      whether the raw deflate format without zlib header should be used
+     *
+     * @return a fresh {@link org.terracottamc.network.raknet.compression.ICompressor}
+     */
+    public static ICompressor create(final boolean compress, final int level, final boolean raw) {
+        if (ByteBufferZipCompressor.isAvailable()) {
+            return new ByteBufferZipCompressor(compress, level, raw);
+        }
+
+        return new ZipCompressor(compress, level, raw);
+    }
+
     @Override
     public void process(final ByteBuf inputBuffer, final ByteBuf outputBuffer) throws DataFormatException {
         final byte[] inData = new byte[inputBuffer.readableBytes()];
@@ -54,15 +73,32 @@ public class ZipCompressor implements ICompressor {
             if (this.inflater != null) {
                 this.inflater.setInput(inData);
 
-                while (!this.inflater.finished() && this.inflater.getTotalIn() < inData.length) {
-                    outputBuffer.writeBytes(this.buffer, 0, this.inflater.inflate(this.buffer));
-                }
+                try {
+                    while (!this.inflater.finished() && this.inflater.getTotalIn() < inData.length) {
+                        final int maxWritableBytes = outputBuffer.maxWritableBytes();
+
+                        if (maxWritableBytes == 0) {
+                            throw new DataFormatException("The inflated data exceeds " + outputBuffer.maxCapacity() +
+                                    " bytes");
+                        }
 
-                this.inflater.reset();
+                        outputBuffer.writeBytes(this.buffer, 0, this.inflater.inflate(this.buffer, 0,
+                                Math.min(this.buffer.length, maxWritableBytes)));
+                    }
+                } finally {
+                    this.inflater.reset();
+                }
             }
         }
     }
 
+    @Override
+    public void setCompressionLevel(final int compressionLevel) {
+        if (this.deflater != null) {
+            this.deflater.setLevel(compressionLevel);
+        }
+    }
+
     @Override
     public void close() {
         if (this.compress && this.deflater != null) {
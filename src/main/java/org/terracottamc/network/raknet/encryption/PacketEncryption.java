@@ -0,0 +1,230 @@
+package org.terracottamc.network.raknet.encryption;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.util.ReferenceCountUtil;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class PacketEncryption extends ChannelDuplexHandler {
+
+    public static final String NAME = "packet-encryption";
+
+    private static final int CHECKSUM_LENGTH = 8;
+
+    private final byte[] counterData = new byte[8];
+    private final byte[] digestData = new byte[32];
+    private final byte[] checksumData = new byte[PacketEncryption.CHECKSUM_LENGTH];
+
+    private byte[] secretKey;
+    private Cipher encryptionCipher;
+    private Cipher decryptionCipher;
+    private MessageDigest messageDigest;
+    private long sentBatches;
+    private long receivedBatches;
+
+    /**
+     * Enables the encryption of the given {@link io.netty.channel.Channel}. The key is passed through the outbound
+     * pipeline, so that every batch which was written before is still sent unencrypted
+     *
+     * @param channel   which should be encrypted
+     * @param secretKey which was agreed on with the client
+     *
+     * @return a fresh {@link io.netty.channel.ChannelFuture} which is completed once the encryption is enabled
+     */
+    public static ChannelFuture enableEncryption(final Channel channel, final byte[] secretKey) {
+        return channel.writeAndFlush(new EncryptionKey(secretKey));
+    }
+
+    @Override
+    public void write(final ChannelHandlerContext ctx, final Object message, final ChannelPromise promise) throws Exception {
+        if (message instanceof EncryptionKey) {
+            this.initialize(((EncryptionKey) message).secretKey);
+
+            promise.trySuccess();
+
+            return;
+        }
+
+        if (this.secretKey != null && message instanceof ByteBuf) {
+            ctx.write(this.encrypt(ctx, (ByteBuf) message), promise);
+
+            return;
+        }
+
+        super.write(ctx, message, promise);
+    }
+
+    @Override
+    public void channelRead(final ChannelHandlerContext ctx, final Object message) throws Exception {
+        if (this.secretKey != null && message instanceof ByteBuf) {
+            ctx.fireChannelRead(this.decrypt(ctx, (ByteBuf) message));
+
+            return;
+        }
+
+        super.channelRead(ctx, message);
+    }
+
+    /**
+     * Checks whether the batches of this channel are encrypted
+     *
+     * @return true, when the encryption is enabled, otherwise false
+     */
+    public boolean isEnabled() {
+        return this.secretKey != null;
+    }
+
+    private void initialize(final byte[] secretKey) throws GeneralSecurityException {
+        // the client encrypts with gcm without verifying its tags, whose key stream starts at the counter block 2
+        final byte[] iv = new byte[16];
+        System.arraycopy(secretKey, 0, iv, 0, 12);
+        iv[15] = 2;
+
+        final SecretKeySpec keySpec = new SecretKeySpec(secretKey, "AES");
+
+        // both ciphers are kept for the whole session, the jdk uses the aes intrinsics of the cpu for them
+        this.encryptionCipher = Cipher.getInstance("AES/CTR/NoPadding");
+        this.encryptionCipher.init(Cipher.ENCRYPT_MODE, keySpec, new IvParameterSpec(iv));
+        this.decryptionCipher = Cipher.getInstance("AES/CTR/NoPadding");
+        this.decryptionCipher.init(Cipher.DECRYPT_MODE, keySpec, new IvParameterSpec(iv));
+        this.messageDigest = MessageDigest.getInstance("SHA-256");
+        this.secretKey = secretKey;
+    }
+
+    private ByteBuf encrypt(final ChannelHandlerContext ctx, final ByteBuf batch) throws GeneralSecurityException {
+        final int length = batch.readableBytes();
+        final ByteBuf buffer = this.prepareInPlace(ctx, batch, PacketEncryption.CHECKSUM_LENGTH);
+
+        try {
+            this.computeChecksum(this.sentBatches++, buffer, buffer.readerIndex(), length);
+
+            buffer.writeBytes(this.digestData, 0, PacketEncryption.CHECKSUM_LENGTH);
+
+            this.process(this.encryptionCipher, buffer);
+        } catch (final GeneralSecurityException | RuntimeException e) {
+            buffer.release();
+
+            throw e;
+        }
+
+        return buffer;
+    }
+
+    private ByteBuf decrypt(final ChannelHandlerContext ctx, final ByteBuf batch) throws GeneralSecurityException {
+        if (batch.readableBytes() < PacketEncryption.CHECKSUM_LENGTH) {
+            batch.release();
+
+            throw new CorruptedFrameException("The encrypted batch is too short to hold a checksum");
+        }
+
+        final ByteBuf buffer = this.prepareInPlace(ctx, batch, 0);
+
+        try {
+            this.process(this.decryptionCipher, buffer);
+
+            final int length = buffer.readableBytes() - PacketEncryption.CHECKSUM_LENGTH;
+
+            this.computeChecksum(this.receivedBatches++, buffer, buffer.readerIndex(), length);
+
+            buffer.getBytes(buffer.readerIndex() + length, this.checksumData);
+
+            for (int i = 0; i < PacketEncryption.CHECKSUM_LENGTH; i++) {
+                if (this.checksumData[i] != this.digestData[i]) {
+                    throw new CorruptedFrameException("The checksum of the encrypted batch does not match");
+                }
+            }
+
+            buffer.writerIndex(buffer.writerIndex() - PacketEncryption.CHECKSUM_LENGTH);
+        } catch (final GeneralSecurityException | RuntimeException e) {
+            buffer.release();
+
+            throw e;
+        }
+
+        return buffer;
+    }
+
+    /**
+     * Retrieves a buffer whose content can be transformed in place. The given buffer is used itself,
+     * when it is a direct buffer with a single memory region that is not shared, otherwise it is copied once
+     *
+     * @param ctx           which provides the allocator for the copy
+     * @param batch         which should be transformed
+     * @param writableBytes which have to be appended to the content
+     *
+     * @return a fresh buffer which holds the content of the batch
+     */
+    private ByteBuf prepareInPlace(final ChannelHandlerContext ctx, final ByteBuf batch, final int writableBytes) {
+        if (batch.isDirect() && !batch.isReadOnly() && batch.refCnt() == 1 && batch.nioBufferCount() == 1 &&
+                batch.maxWritableBytes() >= writableBytes) {
+            batch.ensureWritable(writableBytes);
+
+            if (batch.nioBufferCount() == 1) {
+                return batch;
+            }
+        }
+
+        final ByteBuf buffer = ctx.alloc().directBuffer(batch.readableBytes() + writableBytes);
+
+        try {
+            buffer.writeBytes(batch);
+        } finally {
+            ReferenceCountUtil.safeRelease(batch);
+        }
+
+        return buffer;
+    }
+
+    private void process(final Cipher cipher, final ByteBuf buffer) throws GeneralSecurityException {
+        final ByteBuffer output = buffer.nioBuffer(buffer.readerIndex(), buffer.readableBytes());
+
+        // the cipher is copy safe, so that the input and the output may share the same memory
+        cipher.update(output.duplicate(), output);
+    }
+
+    private void computeChecksum(final long counter, final ByteBuf buffer, final int index, final int length)
+            throws GeneralSecurityException {
+        for (int i = 0; i < 8; i++) {
+            this.counterData[i] = (byte) (counter >>> (i << 3));
+        }
+
+        this.messageDigest.update(this.counterData);
+        this.messageDigest.update(buffer.nioBuffer(index, length));
+        this.messageDigest.update(this.secretKey);
+        this.messageDigest.digest(this.digestData, 0, this.digestData.length);
+    }
+
+    /**
+     * Carries the secret key through the outbound pipeline to the {@link PacketEncryption}
+     */
+    private static class EncryptionKey {
+
+        private final byte[] secretKey;
+
+        private EncryptionKey(final byte[] secretKey) {
+            this.secretKey = secretKey;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.terracottamc.network.raknet.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.socket.DatagramPacket;
+import org.terracottamc.util.AddressRateLimiter;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+@ChannelHandler.Sharable
+public class ConnectionAdmissionHandler extends ChannelInboundHandlerAdapter {
+
+    public static final String NAME = "connection-admission-handler";
+
+    // the second open connection request creates the RakNet session, the first one is repeated for the mtu discovery
+    private static final byte OPEN_CONNECTION_REQUEST_2 = 0x07;
+
+    private final AddressRateLimiter addressRateLimiter;
+    private final AddressRateLimiter subnetRateLimiter;
+    private final LongAdder admittedConnections = new LongAdder();
+    private final LongAdder rejectedConnections = new LongAdder();
+
+    /**
+     * Creates a new {@link org.terracottamc.network.raknet.handler.ConnectionAdmissionHandler}, which is shared by
+     * all sockets, so that a client cannot bypass the limits by hitting another socket of the same port
+     *
+     * @param connectionsPerAddress which represents the amount of sessions a single address may open every second
+     *                              or 0, when the addresses are not limited
+     * @param connectionsPerSubnet  which represents the amount of sessions a subnet may open every second
+     *                              or 0, when the subnets are not limited
+     */
+    public ConnectionAdmissionHandler(final int connectionsPerAddress, final int connectionsPerSubnet) {
+        this.addressRateLimiter = connectionsPerAddress > 0 ?
+                new AddressRateLimiter(connectionsPerAddress, connectionsPerAddress) : null;
+        this.subnetRateLimiter = connectionsPerSubnet > 0 ?
+                new AddressRateLimiter(connectionsPerSubnet, connectionsPerSubnet) : null;
+    }
+
+    @Override
+    public void channelRead(final ChannelHandlerContext ctx, final Object message) throws Exception {
+        if (message instanceof DatagramPacket) {
+            final DatagramPacket datagramPacket = (DatagramPacket) message;
+            final ByteBuf content = datagramPacket.content();
+
+            if (content.isReadable() &&
+                    content.getByte(content.readerIndex()) == ConnectionAdmissionHandler.OPEN_CONNECTION_REQUEST_2) {
+                if (!this.admit(datagramPacket.sender().getAddress())) {
+                    this.rejectedConnections.increment();
+
+                    // the request is dropped without an answer, so that spoofed requests cannot be reflected
+                    datagramPacket.release();
+
+                    return;
+                }
+
+                this.admittedConnections.increment();
+            }
+        }
+
+        super.channelRead(ctx, message);
+    }
+
+    /**
+     * Retrieves the amount of connection requests which were passed on to the RakNet server
+     *
+     * @return a fresh amount of admitted connections
+     */
+    public long getAdmittedConnections() {
+        return this.admittedConnections.sum();
+    }
+
+    /**
+     * Retrieves the amount of connection requests which were dropped,
+     * because their address or subnet opened too many sessions
+     *
+     * @return a fresh amount of rejected connections
+     */
+    public long getRejectedConnections() {
+        return this.rejectedConnections.sum();
+    }
+
+    private boolean admit(final InetAddress address) throws UnknownHostException {
+        if (this.addressRateLimiter != null && !this.addressRateLimiter.tryAcquire(address)) {
+            return false;
+        }
+
+        return this.subnetRateLimiter == null || this.subnetRateLimiter.tryAcquire(this.retrieveSubnet(address));
+    }
+
+    /**
+     * Retrieves the subnet of the given {@link java.net.InetAddress}, which is the /24 network of an IPv4 address
+     * and the /64 network of an IPv6 address
+     *
+     * @param address which is used to retrieve the subnet
+     *
+     * @return a fresh {@link java.net.InetAddress} which represents the subnet
+     *
+     * @throws java.net.UnknownHostException when the address has an unknown length
+     */
+    private InetAddress retrieveSubnet(final InetAddress address) throws UnknownHostException {
+        final byte[] addressData = address.getAddress();
+        final int prefixLength = address instanceof Inet4Address ? 3 : 8;
+
+        for (int i = prefixLength; i < addressData.length; i++) {
+            addressData[i] = 0;
+        }
+
+        return InetAddress.getByAddress(addressData);
+    }
+}
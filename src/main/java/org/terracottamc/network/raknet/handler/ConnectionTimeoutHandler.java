@@ -4,6 +4,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.timeout.IdleStateEvent;
 import io.netty.handler.timeout.IdleStateHandler;
 import org.terracottamc.entity.player.Player;
+import org.terracottamc.entity.player.PlayerNetworkConnection;
 import org.terracottamc.server.Server;
 
 import java.net.InetSocketAddress;
@@ -34,7 +35,7 @@ public class ConnectionTimeoutHandler extends IdleStateHandler {
     protected void channelIdle(final ChannelHandlerContext ctx, final IdleStateEvent event) {
         if (!this.closed) {
             final InetSocketAddress address = (InetSocketAddress) ctx.channel().remoteAddress();
-            final Player player = Server.getInstance().getPlayerByAddress(address);
+            final Player player = PlayerNetworkConnection.retrievePlayer(ctx.channel());
 
             if (player != null) {
                 Server.getInstance().getLogger().info("The player " + player.getName() + " disconnected with " +
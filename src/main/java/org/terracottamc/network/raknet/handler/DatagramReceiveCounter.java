@@ -0,0 +1,74 @@
+package org.terracottamc.network.raknet.handler;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.socket.DatagramPacket;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class DatagramReceiveCounter extends ChannelInboundHandlerAdapter {
+
+    public static final String NAME = "datagram-receive-counter";
+
+    private final int socketIndex;
+    private final LongAdder receivedDatagrams = new LongAdder();
+    private final LongAdder receivedBytes = new LongAdder();
+
+    /**
+     * Creates a new {@link org.terracottamc.network.raknet.handler.DatagramReceiveCounter}
+     *
+     * @param socketIndex which represents the index of the socket this counter is bound to
+     */
+    public DatagramReceiveCounter(final int socketIndex) {
+        this.socketIndex = socketIndex;
+    }
+
+    @Override
+    public void channelRead(final ChannelHandlerContext ctx, final Object message) throws Exception {
+        if (message instanceof DatagramPacket) {
+            this.receivedDatagrams.increment();
+            this.receivedBytes.add(((DatagramPacket) message).content().readableBytes());
+        }
+
+        super.channelRead(ctx, message);
+    }
+
+    /**
+     * Retrieves the index of the socket this {@link org.terracottamc.network.raknet.handler.DatagramReceiveCounter}
+     * is counting for
+     *
+     * @return a fresh socket index
+     */
+    public int getSocketIndex() {
+        return this.socketIndex;
+    }
+
+    /**
+     * Retrieves the amount of datagrams which were received by this socket
+     *
+     * @return a fresh amount of received datagrams
+     */
+    public long getReceivedDatagrams() {
+        return this.receivedDatagrams.sum();
+    }
+
+    /**
+     * Retrieves the amount of bytes which were received by this socket
+     *
+     * @return a fresh amount of received bytes
+     */
+    public long getReceivedBytes() {
+        return this.receivedBytes.sum();
+    }
+}
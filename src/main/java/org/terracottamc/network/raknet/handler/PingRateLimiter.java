@@ -0,0 +1,77 @@
+package org.terracottamc.network.raknet.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.socket.DatagramPacket;
+import org.terracottamc.util.AddressRateLimiter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+@ChannelHandler.Sharable
+public class PingRateLimiter extends ChannelInboundHandlerAdapter {
+
+    public static final String NAME = "ping-rate-limiter";
+
+    private static final byte UNCONNECTED_PING = 0x01;
+    private static final byte UNCONNECTED_PING_OPEN_CONNECTIONS = 0x02;
+
+    private final AddressRateLimiter addressRateLimiter;
+    private final LongAdder droppedPings = new LongAdder();
+
+    /**
+     * Creates a new {@link org.terracottamc.network.raknet.handler.PingRateLimiter}, which is shared by all sockets,
+     * so that a client cannot bypass the limit by hitting another socket of the same port
+     *
+     * @param pingsPerSecond which represents the amount of pings a single address may send every second
+     */
+    public PingRateLimiter(final int pingsPerSecond) {
+        this.addressRateLimiter = new AddressRateLimiter(pingsPerSecond, pingsPerSecond);
+    }
+
+    @Override
+    public void channelRead(final ChannelHandlerContext ctx, final Object message) throws Exception {
+        if (message instanceof DatagramPacket) {
+            final DatagramPacket datagramPacket = (DatagramPacket) message;
+            final ByteBuf content = datagramPacket.content();
+
+            if (content.isReadable()) {
+                final byte packetId = content.getByte(content.readerIndex());
+
+                // the pings are dropped by their id, before anything is decoded or allocated for them
+                if ((packetId == PingRateLimiter.UNCONNECTED_PING ||
+                        packetId == PingRateLimiter.UNCONNECTED_PING_OPEN_CONNECTIONS) &&
+                        !this.addressRateLimiter.tryAcquire(datagramPacket.sender().getAddress())) {
+                    this.droppedPings.increment();
+
+                    datagramPacket.release();
+
+                    return;
+                }
+            }
+        }
+
+        super.channelRead(ctx, message);
+    }
+
+    /**
+     * Retrieves the amount of pings which were dropped, because their sender exceeded the limit
+     *
+     * @return a fresh amount of dropped pings
+     */
+    public long getDroppedPings() {
+        return this.droppedPings.sum();
+    }
+}
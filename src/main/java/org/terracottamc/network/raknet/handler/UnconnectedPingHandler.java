@@ -10,11 +10,12 @@ import network.ycc.raknet.RakNet;
 import network.ycc.raknet.packet.UnconnectedPing;
 import network.ycc.raknet.packet.UnconnectedPong;
 import network.ycc.raknet.server.pipeline.UdpPacketHandler;
-import org.terracottamc.network.raknet.type.ServerInfo;
 import org.terracottamc.entity.player.GameMode;
+import org.terracottamc.network.raknet.type.ServerInfo;
 import org.terracottamc.server.Server;
 
 import java.net.InetSocketAddress;
+import java.util.Objects;
 
 /**
  * Copyright (c) 2021, TerracottaMC
@@ -29,25 +30,71 @@ import java.net.InetSocketAddress;
  */
 public class UnconnectedPingHandler extends UdpPacketHandler<UnconnectedPing> {
 
+    // the client time follows the packet id, see the layout of the RakNet unconnected pong
+    private static final int CLIENT_TIME_INDEX = 1;
+
+    private ServerInfo serverInfo;
+    private ByteBuf encodedPong;
+
     public UnconnectedPingHandler() {
         super(UnconnectedPing.class);
     }
 
+    @Override
+    public void handlerRemoved(final ChannelHandlerContext ctx) throws Exception {
+        ReferenceCountUtil.safeRelease(this.encodedPong);
+
+        this.encodedPong = null;
+
+        super.handlerRemoved(ctx);
+    }
+
     @Override
     protected void handle(final ChannelHandlerContext ctx, final InetSocketAddress socketAddress, final UnconnectedPing unconnectedPing) {
+        final ByteBuf encodedPong = this.retrieveEncodedPong(ctx);
+        final ByteBuf buffer = ctx.alloc().directBuffer(encodedPong.readableBytes());
+
+        buffer.writeBytes(encodedPong, encodedPong.readerIndex(), encodedPong.readableBytes());
+        buffer.setLong(UnconnectedPingHandler.CLIENT_TIME_INDEX, unconnectedPing.getClientTime());
+
+        ctx.channel().writeAndFlush(new DatagramPacket(buffer, socketAddress))
+                .addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+    }
+
+    /**
+     * Retrieves the encoded pong of the current state of the {@link org.terracottamc.server.Server}.
+     * The pong is only encoded again, when the information which is shown in the server list has changed
+     *
+     * @param ctx which is used to encode the pong
+     *
+     * @return a fresh encoded pong, which is owned by this handler
+     */
+    private ByteBuf retrieveEncodedPong(final ChannelHandlerContext ctx) {
+        final Server server = Server.getInstance();
+        final String motd = server.getMotd();
+        final String submotd = server.getSubMotd();
+        final int playerCount = server.getPlayerRegistry().size();
+        final int maxPlayers = server.getMaxPlayers();
+        final GameMode defaultGameMode = server.getDefaultGameMode();
+
+        if (this.encodedPong != null && this.serverInfo.getPlayerCount() == playerCount &&
+                this.serverInfo.getMaxPlayers() == maxPlayers && this.serverInfo.getDefaultGameMode() == defaultGameMode &&
+                Objects.equals(this.serverInfo.getMotd(), motd) && Objects.equals(this.serverInfo.getSubmotd(), submotd)) {
+            return this.encodedPong;
+        }
+
         final Channel channel = ctx.channel();
         final RakNet.Config rakNetConfig = (RakNet.Config) channel.config();
-        final Server server = Server.getInstance();
 
         final ServerInfo serverInfo = new ServerInfo();
         serverInfo.setServerId(server.getServerId());
-        serverInfo.setMotd(server.getMotd());
-        serverInfo.setSubmotd(server.getSubMotd());
-        serverInfo.setMaxPlayers(server.getMaxPlayers());
-        serverInfo.setDefaultGameMode(server.getDefaultGameMode());
+        serverInfo.setMotd(motd);
+        serverInfo.setSubmotd(submotd);
+        serverInfo.setPlayerCount(playerCount);
+        serverInfo.setMaxPlayers(maxPlayers);
+        serverInfo.setDefaultGameMode(defaultGameMode);
 
         final UnconnectedPong unconnectedPong = new UnconnectedPong();
-        unconnectedPong.setClientTime(unconnectedPing.getClientTime());
         unconnectedPong.setServerId(rakNetConfig.getServerId());
         unconnectedPong.setMagic(rakNetConfig.getMagic());
         unconnectedPong.setInfo(serverInfo.toString());
@@ -56,14 +103,19 @@ public class UnconnectedPingHandler extends UdpPacketHandler<UnconnectedPing> {
 
         try {
             rakNetConfig.getCodec().encode(unconnectedPong, buffer);
+        } catch (final RuntimeException e) {
+            buffer.release();
 
-            for (int i = 0; i < 3; i++) {
-                channel.writeAndFlush(new DatagramPacket(buffer.retainedSlice(), socketAddress))
-                        .addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
-            }
+            throw e;
         } finally {
             ReferenceCountUtil.safeRelease(unconnectedPong);
-            buffer.release();
         }
+
+        ReferenceCountUtil.safeRelease(this.encodedPong);
+
+        this.serverInfo = serverInfo;
+        this.encodedPong = buffer;
+
+        return buffer;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package org.terracottamc.network.raknet.protocol;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class InboundPacketStatistics {
+
+    private final LongAdder unknownPackets = new LongAdder();
+    private final LongAdder droppedPackets = new LongAdder();
+    private final AtomicLongArray unknownPacketIds = new AtomicLongArray(0x400);
+
+    /**
+     * Records a packet whose id is not registered
+     *
+     * @param packetId which represents the id of the unknown packet
+     */
+    public void recordUnknownPacket(final int packetId) {
+        this.unknownPackets.increment();
+        this.unknownPacketIds.incrementAndGet(packetId & 0x3FF);
+    }
+
+    /**
+     * Records a packet which was dropped without decoding it, because nobody handles it
+     */
+    public void recordDroppedPacket() {
+        this.droppedPackets.increment();
+    }
+
+    /**
+     * Retrieves the amount of received packets whose id is not registered
+     *
+     * @return a fresh amount of unknown packets
+     */
+    public long getUnknownPackets() {
+        return this.unknownPackets.sum();
+    }
+
+    /**
+     * Retrieves how often a packet with the given unregistered id was received
+     *
+     * @param packetId which is used to retrieve the amount
+     *
+     * @return a fresh amount of unknown packets with the given id
+     */
+    public long getUnknownPackets(final int packetId) {
+        return this.unknownPacketIds.get(packetId & 0x3FF);
+    }
+
+    /**
+     * Retrieves the amount of received packets which were dropped without decoding them
+     *
+     * @return a fresh amount of dropped packets
+     */
+    public long getDroppedPackets() {
+        return this.droppedPackets.sum();
+    }
+}
@@ -4,11 +4,17 @@ import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageDecoder;
 import org.terracottamc.entity.player.Player;
+import org.terracottamc.entity.player.PlayerNetworkConnection;
+import org.terracottamc.logging.Logger;
+import org.terracottamc.network.packet.DecodingLimitException;
+import org.terracottamc.network.packet.DecodingLimits;
 import org.terracottamc.network.packet.Packet;
+import org.terracottamc.network.packet.Protocol;
+import org.terracottamc.network.packet.registry.PacketDefinition;
+import org.terracottamc.network.packet.registry.PacketRegistry;
 import org.terracottamc.server.Server;
 import org.terracottamc.util.BinaryStream;
 
-import java.net.InetSocketAddress;
 import java.util.List;
 
 /**
@@ -26,35 +32,120 @@ public class ProtocolDecoder extends MessageToMessageDecoder<ByteBuf> {
 
     public static final String NAME = "protocol-decoder";
 
-    private final Server server;
+    private final PacketRegistry packetRegistry;
+    private final InboundPacketStatistics inboundPacketStatistics;
+    private final boolean dropUnhandledPackets;
+    private final DecodingLimits decodingLimits;
+    private final Logger logger;
 
-    public ProtocolDecoder() {
-        this.server = Server.getInstance();
+    /**
+     * Creates a new {@link org.terracottamc.network.raknet.protocol.ProtocolDecoder}
+     *
+     * @param inboundPacketStatistics which counts the unknown and dropped packets
+     */
+    public ProtocolDecoder(final InboundPacketStatistics inboundPacketStatistics) {
+        this(Server.getInstance().getPacketRegistry(), inboundPacketStatistics,
+                Server.getInstance().isDropUnhandledPackets(), Server.getInstance().getDecodingLimits(),
+                Server.getInstance().getLogger());
+    }
+
+    /**
+     * Creates a new {@link org.terracottamc.network.raknet.protocol.ProtocolDecoder}
+     *
+     * @param packetRegistry          which resolves the received packet ids
+     * @param inboundPacketStatistics which counts the unknown and dropped packets
+     * @param dropUnhandledPackets    whether packets without a handler are dropped before they are decoded
+     * @param decodingLimits          which bound the received packets
+     * @param logger                  which reports the rejected packets
+     */
+    public ProtocolDecoder(final PacketRegistry packetRegistry, final InboundPacketStatistics inboundPacketStatistics,
+                           final boolean dropUnhandledPackets, final DecodingLimits decodingLimits,
+                           final Logger logger) {
+        this.packetRegistry = packetRegistry;
+        this.inboundPacketStatistics = inboundPacketStatistics;
+        this.dropUnhandledPackets = dropUnhandledPackets;
+        this.decodingLimits = decodingLimits;
+        this.logger = logger;
     }
 
     @Override
     protected void decode(final ChannelHandlerContext ctx, final ByteBuf buffer, final List<Object> out) {
         final BinaryStream packetStream = new BinaryStream(buffer);
         final int packetId = packetStream.readUnsignedVarInt() & 0x3FF;
-        final Packet readPacket = this.server.getPacketRegistry().retrievePacketById(packetId);
+        final Player player = PlayerNetworkConnection.retrievePlayer(ctx.channel());
+        final int protocolVersion = player != null ? player.getPlayerNetworkConnection().getProtocolVersion() :
+                Protocol.CURRENT_PROTOCOL;
+        final PacketDefinition<? extends Packet> packetDefinition =
+                this.packetRegistry.retrievePacketDefinition(protocolVersion, packetId);
+
+        if (packetDefinition == null) {
+            packetStream.release();
+
+            this.inboundPacketStatistics.recordUnknownPacket(packetId);
+
+            return;
+        }
+
+        // packets which would not be handled anyway are dropped before an instance is created or decoded
+        if (this.dropUnhandledPackets && (packetDefinition.getPacketHandler() == null ||
+                !packetDefinition.getPacketDirection().isServerbound())) {
+            packetStream.release();
 
-        if (readPacket == null) {
-            Server.getInstance().getLogger().warn("Failed to read incoming packet with id: 0x" +
-                    Integer.toHexString(packetId));
+            this.inboundPacketStatistics.recordDroppedPacket();
 
             return;
         }
 
+        try {
+            this.decodingLimits.checkPacketSize(packetId, buffer.readableBytes());
+        } catch (final DecodingLimitException e) {
+            packetStream.release();
+
+            this.rejectPacket(ctx, e);
+
+            return;
+        }
 
-        final Player player = this.server.getPlayerByAddress((InetSocketAddress) ctx.channel().remoteAddress());
+        final Packet readPacket = packetDefinition.createPacket();
 
         if (player != null) {
-            readPacket.setProtocolVersion(player.getLoginChainData().getProtocolVersion());
+            readPacket.setProtocolVersion(protocolVersion);
         }
 
+        // the packet takes over the reference of the stream and is released after it was handled
         readPacket.setBuffer(packetStream.getBuffer());
-        readPacket.deserialize();
+        readPacket.setDecodingLimits(this.decodingLimits);
+
+        if (!packetDefinition.isLazyDecoding()) {
+            try {
+                readPacket.deserialize();
+            } catch (final DecodingLimitException e) {
+                readPacket.recycle();
+
+                this.rejectPacket(ctx, e);
+
+                return;
+            } catch (final RuntimeException e) {
+                readPacket.recycle();
+
+                throw e;
+            }
+        }
 
         out.add(readPacket);
     }
-}
\ No newline at end of file
+
+    /**
+     * Closes the session of a client which has sent a packet that exceeds the
+     * {@link org.terracottamc.network.packet.DecodingLimits}
+     *
+     * @param ctx                    which received the packet
+     * @param decodingLimitException which describes the exceeded limit
+     */
+    private void rejectPacket(final ChannelHandlerContext ctx, final DecodingLimitException decodingLimitException) {
+        this.logger.error("Disconnecting " + ctx.channel().remoteAddress() + ": " +
+                decodingLimitException.getMessage());
+
+        ctx.close();
+    }
+}
@@ -1,10 +1,11 @@
 package org.terracottamc.network.raknet.protocol;
 
-import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
 import org.terracottamc.network.packet.Packet;
 
+import java.util.List;
+
 /**
  * Copyright (c) 2021, TerracottaMC
  * All rights reserved.
@@ -16,14 +17,13 @@ import org.terracottamc.network.packet.Packet;
  * @author Kaooot
  * @version 1.0
  */
-public class ProtocolEncoder extends MessageToByteEncoder<Packet> {
+public class ProtocolEncoder extends MessageToMessageEncoder<Packet> {
 
     public static final String NAME = "protocol-encoder";
 
     @Override
-    protected void encode(final ChannelHandlerContext ctx, final Packet packet, final ByteBuf out) {
-        packet.serialize();
-
-        out.writeBytes(packet.getBuffer());
+    protected void encode(final ChannelHandlerContext ctx, final Packet packet, final List<Object> out) {
+        // the packet is encoded straight into a pooled buffer which is passed down without copying it
+        out.add(packet.encode(ctx.alloc()));
     }
 }
\ No newline at end of file
@@ -5,13 +5,16 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.SimpleChannelInboundHandler;
 import org.terracottamc.entity.player.Player;
-import org.terracottamc.network.packet.LoginPacket;
+import org.terracottamc.entity.player.PlayerNetworkConnection;
+import org.terracottamc.logging.Logger;
+import org.terracottamc.network.packet.DecodingLimitException;
 import org.terracottamc.network.packet.Packet;
-import org.terracottamc.network.packet.handler.IPacketHandler;
-import org.terracottamc.network.packet.handler.LoginPacketHandler;
+import org.terracottamc.network.packet.Protocol;
+import org.terracottamc.network.packet.registry.PacketDefinition;
+import org.terracottamc.network.packet.registry.PacketRegistry;
 import org.terracottamc.server.Server;
 
-import java.net.InetSocketAddress;
+import java.util.concurrent.Executor;
 
 /**
  * Copyright (c) 2021, TerracottaMC
@@ -28,12 +31,32 @@ public class ProtocolHandler extends SimpleChannelInboundHandler<Packet> {
 
     public static final String NAME = "protocol-handler";
 
-    private final Server server;
+    private final PacketRegistry packetRegistry;
+    private final Executor mainThreadExecutor;
+    private final Logger logger;
 
     private static ChannelPipeline channelPipeline;
 
     public ProtocolHandler() {
-        this.server = Server.getInstance();
+        this(Server.getInstance().getPacketRegistry(), Server.getInstance()::offerToMainThread,
+                Server.getInstance().getLogger());
+    }
+
+    /**
+     * Creates a new {@link org.terracottamc.network.raknet.protocol.ProtocolHandler}
+     *
+     * @param packetRegistry     which resolves the handlers of the received packets
+     * @param mainThreadExecutor which runs the handling of the packets that are handled on the main thread
+     * @param logger             which reports the rejected packets
+     */
+    public ProtocolHandler(final PacketRegistry packetRegistry, final Executor mainThreadExecutor,
+                           final Logger logger) {
+        // the packets are recycled by this handler itself
+        super(false);
+
+        this.packetRegistry = packetRegistry;
+        this.mainThreadExecutor = mainThreadExecutor;
+        this.logger = logger;
     }
 
     @Override
@@ -46,28 +69,52 @@ public class ProtocolHandler extends SimpleChannelInboundHandler<Packet> {
     @Override
     protected void channelRead0(final ChannelHandlerContext ctx, final Packet packet) {
         final Channel channel = ctx.channel();
+        final Player player = PlayerNetworkConnection.retrievePlayer(channel);
+        final int protocolVersion = player != null ? player.getPlayerNetworkConnection().getProtocolVersion() :
+                Protocol.CURRENT_PROTOCOL;
+        final PacketDefinition<? extends Packet> packetDefinition =
+                this.packetRegistry.retrievePacketDefinition(protocolVersion, packet.getPacketId());
 
-        if (packet.getClass().equals(LoginPacket.class)) {
-            final LoginPacket loginPacket = (LoginPacket) packet;
-            final LoginPacketHandler loginPacketHandler = (LoginPacketHandler)
-                    this.server.getPacketRegistry().retrievePacketHandlerByClass(LoginPacket.class);
-
-            loginPacketHandler.handleLogin(loginPacket, channel);
+        if (packetDefinition == null || packetDefinition.getPacketHandler() == null) {
+            packet.recycle();
 
             return;
         }
 
-        final IPacketHandler<Packet> packetHandler = (IPacketHandler<Packet>) this.server.getPacketRegistry()
-                .retrievePacketHandlerByClass(packet.getClass());
+        if (packetDefinition.isMainThreadHandling()) {
+            this.mainThreadExecutor.execute(() -> this.handlePacket(packetDefinition, packet, channel, player));
 
-        if (packetHandler == null) {
             return;
         }
 
-        final Player player = this.server.getPlayerByAddress((InetSocketAddress) channel.remoteAddress());
+        this.handlePacket(packetDefinition, packet, channel, player);
+    }
 
-        if (player != null) {
-            packetHandler.handle(packet, player);
+    /**
+     * Passes the given {@link org.terracottamc.network.packet.Packet} to the handler of its
+     * {@link org.terracottamc.network.packet.registry.PacketDefinition} and recycles it afterwards
+     *
+     * @param packetDefinition which belongs to the {@link org.terracottamc.network.packet.Packet}
+     * @param packet           which should be handled
+     * @param channel          which received the {@link org.terracottamc.network.packet.Packet}
+     * @param player           who sent the {@link org.terracottamc.network.packet.Packet} or null,
+     *                         when the login has not been completed yet
+     */
+    private void handlePacket(final PacketDefinition<? extends Packet> packetDefinition, final Packet packet,
+                              final Channel channel, final Player player) {
+        try {
+            if (packetDefinition.isLazyDecoding()) {
+                packet.deserialize();
+            }
+
+            packetDefinition.handle(packet, channel, player);
+        } catch (final DecodingLimitException e) {
+            // lazily decoded packets exceed their limits while being handled, possibly on the main thread
+            this.logger.error("Disconnecting " + channel.remoteAddress() + ": " + e.getMessage());
+
+            channel.close();
+        } finally {
+            packet.recycle();
         }
     }
 
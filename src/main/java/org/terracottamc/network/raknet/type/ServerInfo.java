@@ -2,7 +2,6 @@ package org.terracottamc.network.raknet.type;
 
 import org.terracottamc.entity.player.GameMode;
 import org.terracottamc.network.packet.Protocol;
-import org.terracottamc.server.Server;
 
 import java.util.StringJoiner;
 
@@ -22,6 +21,7 @@ public class ServerInfo {
     private long serverId;
     private String motd;
     private String submotd;
+    private int playerCount;
     private int maxPlayers;
     private GameMode defaultGameMode;
 
@@ -52,6 +52,15 @@ public class ServerInfo {
         return this.submotd;
     }
 
+    /**
+     * Retrieves the amount of online players of the {@link org.terracottamc.network.raknet.type.ServerInfo}
+     *
+     * @return the amount of online players
+     */
+    public int getPlayerCount() {
+        return this.playerCount;
+    }
+
     /**
      * Retrieves the amount of maximum players of the {@link org.terracottamc.network.raknet.type.ServerInfo}
      *
@@ -98,6 +107,15 @@ public class ServerInfo {
         this.submotd = submotd;
     }
 
+    /**
+     * Updates the amount of online players of the {@link org.terracottamc.server.Server}
+     *
+     * @param playerCount which should be updated
+     */
+    public void setPlayerCount(final int playerCount) {
+        this.playerCount = playerCount;
+    }
+
     /**
      * Updates the amount maximum players of the {@link org.terracottamc.server.Server}
      *
@@ -123,7 +141,7 @@ public class ServerInfo {
         stringJoiner.add(this.motd);
         stringJoiner.add(Integer.toString(Protocol.CURRENT_PROTOCOL));
         stringJoiner.add(Protocol.MINECRAFT_VERSION);
-        stringJoiner.add(Integer.toString(Server.getInstance().getPlayers().size()));
+        stringJoiner.add(Integer.toString(this.playerCount));
         stringJoiner.add(Integer.toString(this.maxPlayers));
         stringJoiner.add(Long.toString(this.serverId));
         stringJoiner.add(this.submotd);
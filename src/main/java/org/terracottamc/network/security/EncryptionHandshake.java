@@ -0,0 +1,147 @@
+package org.terracottamc.network.security;
+
+import com.google.gson.JsonObject;
+import org.terracottamc.network.security.jwt.JwtSignature;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import javax.crypto.KeyAgreement;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class EncryptionHandshake {
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final JwtSignature JWT_SIGNATURE = new JwtSignature();
+
+    // the crypto services look up their provider on every creation, so that every thread reuses its own instances
+    private static final ThreadLocal<KeyPairGenerator> KEY_PAIR_GENERATOR = ThreadLocal.withInitial(() -> {
+        try {
+            final KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+            keyPairGenerator.initialize(new ECGenParameterSpec("secp384r1"));
+
+            return keyPairGenerator;
+        } catch (final GeneralSecurityException e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    });
+    private static final ThreadLocal<KeyAgreement> KEY_AGREEMENT = ThreadLocal.withInitial(() -> {
+        try {
+            return KeyAgreement.getInstance("ECDH");
+        } catch (final NoSuchAlgorithmException e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    });
+    private static final ThreadLocal<MessageDigest> MESSAGE_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    });
+
+    private final byte[] secretKey;
+    private final String jwt;
+
+    private EncryptionHandshake(final byte[] secretKey, final String jwt) {
+        this.secretKey = secretKey;
+        this.jwt = jwt;
+    }
+
+    /**
+     * Creates a new {@link org.terracottamc.network.security.EncryptionHandshake} for the given public key
+     * of a client. This generates a key pair of the server, derives the shared secret with ECDH and signs the
+     * handshake jwt, which is why it should not be run on a network thread
+     *
+     * @param clientPublicKey which was sent by the client in its login data
+     *
+     * @return a fresh {@link org.terracottamc.network.security.EncryptionHandshake}
+     *
+     * @throws java.security.GeneralSecurityException when the key exchange fails
+     */
+    public static EncryptionHandshake create(final ECPublicKey clientPublicKey) throws GeneralSecurityException {
+        final KeyPairGenerator keyPairGenerator = EncryptionHandshake.KEY_PAIR_GENERATOR.get();
+        final KeyAgreement keyAgreement = EncryptionHandshake.KEY_AGREEMENT.get();
+        final MessageDigest messageDigest = EncryptionHandshake.MESSAGE_DIGEST.get();
+
+        if (keyPairGenerator == null || keyAgreement == null || messageDigest == null) {
+            throw new GeneralSecurityException("The key exchange is not supported by this runtime");
+        }
+
+        final KeyPair serverKeyPair = keyPairGenerator.generateKeyPair();
+
+        keyAgreement.init(serverKeyPair.getPrivate());
+        keyAgreement.doPhase(clientPublicKey, true);
+
+        final byte[] salt = new byte[16];
+
+        EncryptionHandshake.SECURE_RANDOM.nextBytes(salt);
+
+        messageDigest.reset();
+        messageDigest.update(salt);
+        messageDigest.update(keyAgreement.generateSecret());
+
+        final byte[] secretKey = messageDigest.digest();
+
+        final Base64.Encoder urlEncoder = Base64.getUrlEncoder().withoutPadding();
+
+        final JsonObject header = new JsonObject();
+        header.addProperty("alg", "ES384");
+        header.addProperty("x5u", Base64.getEncoder().encodeToString(serverKeyPair.getPublic().getEncoded()));
+
+        final JsonObject payload = new JsonObject();
+        payload.addProperty("salt", Base64.getEncoder().encodeToString(salt));
+
+        final String signatureData = urlEncoder.encodeToString(header.toString().getBytes(StandardCharsets.UTF_8)) +
+                "." + urlEncoder.encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+        final byte[] signature = EncryptionHandshake.JWT_SIGNATURE.sign(serverKeyPair.getPrivate(),
+                signatureData.getBytes(StandardCharsets.US_ASCII));
+
+        if (signature.length == 0) {
+            throw new GeneralSecurityException("The handshake jwt could not be signed");
+        }
+
+        return new EncryptionHandshake(secretKey, signatureData + "." + urlEncoder.encodeToString(signature));
+    }
+
+    /**
+     * Retrieves the AES key which was derived from the shared secret and the salt
+     *
+     * @return a fresh secret key
+     */
+    public byte[] getSecretKey() {
+        return this.secretKey;
+    }
+
+    /**
+     * Retrieves the signed jwt which has to be sent to the client, so that it can derive the same key
+     *
+     * @return a fresh jwt
+     */
+    public String getJwt() {
+        return this.jwt;
+    }
+}
@@ -0,0 +1,222 @@
+package org.terracottamc.network.security;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.terracottamc.network.packet.LoginPacket;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class LoginVerificationExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final boolean encryption;
+    private final AtomicInteger pendingLogins = new AtomicInteger();
+    private final LongAdder verifiedLogins = new LongAdder();
+    private final LongAdder failedLogins = new LongAdder();
+    private final LongAdder rejectedLogins = new LongAdder();
+    private final LongAdder totalQueueTime = new LongAdder();
+    private final LongAdder totalParseTime = new LongAdder();
+    private final LongAdder totalVerificationTime = new LongAdder();
+    private final LongAdder totalSkinDecodeTime = new LongAdder();
+    private final LongAdder totalHandshakeTime = new LongAdder();
+
+    /**
+     * Creates a new {@link org.terracottamc.network.security.LoginVerificationExecutor}
+     *
+     * @param threads         which represents the amount of threads that verify logins
+     * @param maxQueuedLogins which represents the amount of logins that may wait for their verification
+     *                        before further logins are rejected
+     * @param encryption      whether the key exchange of the encryption is done together with the verification
+     */
+    public LoginVerificationExecutor(final int threads, final int maxQueuedLogins, final boolean encryption) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueuedLogins), new DefaultThreadFactory("Login Verification", true),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.encryption = encryption;
+    }
+
+    /**
+     * Decodes and verifies the login data of the given {@link org.terracottamc.network.packet.LoginPacket}
+     * on one of the threads of this executor. The buffer of the packet is released once it was decoded.
+     * When the encryption is enabled, the key exchange with the client is prepared as well
+     *
+     * @param loginPacket which should be verified
+     *
+     * @return a fresh {@link java.util.concurrent.CompletableFuture} which is completed with the decoded packet
+     *
+     * @throws java.util.concurrent.RejectedExecutionException when too many logins are already waiting
+     */
+    public CompletableFuture<LoginPacket> verify(final LoginPacket loginPacket) {
+        final long submitTime = System.nanoTime();
+
+        this.pendingLogins.incrementAndGet();
+
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                this.totalQueueTime.add(System.nanoTime() - submitTime);
+
+                try {
+                    loginPacket.decodeLoginData();
+
+                    if (this.encryption) {
+                        loginPacket.createEncryptionHandshake();
+                    }
+                } catch (final GeneralSecurityException | RuntimeException e) {
+                    this.failedLogins.increment();
+
+                    throw e instanceof RuntimeException ? (RuntimeException) e : new CompletionException(e);
+                } finally {
+                    loginPacket.recycle();
+
+                    this.pendingLogins.decrementAndGet();
+                }
+
+                this.verifiedLogins.increment();
+                this.totalParseTime.add(loginPacket.getParseTime());
+                this.totalVerificationTime.add(loginPacket.getVerificationTime());
+                this.totalSkinDecodeTime.add(loginPacket.getSkinDecodeTime());
+                this.totalHandshakeTime.add(loginPacket.getHandshakeTime());
+
+                return loginPacket;
+            }, this.executor);
+        } catch (final RejectedExecutionException e) {
+            loginPacket.recycle();
+
+            this.pendingLogins.decrementAndGet();
+
+            this.rejectedLogins.increment();
+
+            throw e;
+        }
+    }
+
+    /**
+     * Records a login which was rejected before it was passed to this executor,
+     * because it would have been rejected after its verification anyway
+     */
+    public void recordRejectedLogin() {
+        this.rejectedLogins.increment();
+    }
+
+    /**
+     * Retrieves the amount of logins which were passed to this executor, but are not verified yet
+     *
+     * @return a fresh amount of pending logins
+     */
+    public int getPendingLogins() {
+        return this.pendingLogins.get();
+    }
+
+    /**
+     * Retrieves the amount of logins which are currently waiting for their verification
+     *
+     * @return a fresh amount of queued logins
+     */
+    public int getQueuedLogins() {
+        return this.executor.getQueue().size();
+    }
+
+    /**
+     * Retrieves the amount of logins which were decoded and verified by this executor
+     *
+     * @return a fresh amount of verified logins
+     */
+    public long getVerifiedLogins() {
+        return this.verifiedLogins.sum();
+    }
+
+    /**
+     * Retrieves the amount of logins whose login data could not be decoded
+     *
+     * @return a fresh amount of failed logins
+     */
+    public long getFailedLogins() {
+        return this.failedLogins.sum();
+    }
+
+    /**
+     * Retrieves the amount of logins which were rejected before their verification,
+     * because too many logins were already waiting or the server was full
+     *
+     * @return a fresh amount of rejected logins
+     */
+    public long getRejectedLogins() {
+        return this.rejectedLogins.sum();
+    }
+
+    /**
+     * Retrieves the average time in nanoseconds a login waited until its verification was started
+     *
+     * @return a fresh average time in nanoseconds
+     */
+    public long getAverageQueueTime() {
+        return this.average(this.totalQueueTime);
+    }
+
+    /**
+     * Retrieves the average time in nanoseconds which was spent parsing the login data
+     *
+     * @return a fresh average time in nanoseconds
+     */
+    public long getAverageParseTime() {
+        return this.average(this.totalParseTime);
+    }
+
+    /**
+     * Retrieves the average time in nanoseconds which was spent verifying the signatures of the login data
+     *
+     * @return a fresh average time in nanoseconds
+     */
+    public long getAverageVerificationTime() {
+        return this.average(this.totalVerificationTime);
+    }
+
+    /**
+     * Retrieves the average time in nanoseconds which was spent decoding the skin of the login data
+     *
+     * @return a fresh average time in nanoseconds
+     */
+    public long getAverageSkinDecodeTime() {
+        return this.average(this.totalSkinDecodeTime);
+    }
+
+    /**
+     * Retrieves the average time in nanoseconds which was spent on the key exchange of the encryption
+     *
+     * @return a fresh average time in nanoseconds
+     */
+    public long getAverageHandshakeTime() {
+        return this.average(this.totalHandshakeTime);
+    }
+
+    /**
+     * Shuts this {@link org.terracottamc.network.security.LoginVerificationExecutor} down
+     */
+    public void close() {
+        this.executor.shutdown();
+    }
+
+    private long average(final LongAdder totalTime) {
+        final long verifiedLogins = this.verifiedLogins.sum();
+
+        return verifiedLogins == 0 ? 0 : totalTime.sum() / verifiedLogins;
+    }
+}
@@ -27,7 +27,8 @@ public class MojangSecurityDecryptionHelper {
         final String serializedJwtRoot = "MHYwEAYHKoZIzj0CAQYFK4EEACIDYgAE8ELkixyLcwlZryUQcu1TvPOmI2B7vX83ndnWRUaXm7" +
                 "4wFfa5f/lwQNTfrLVHa2PmenpGI6JhIMUJaWZrjmMj90NoKNFSNBuKdm8rYiXsfaz3K36x/1U26HpG0ZxK/V1V";
 
-        this.mojangRootKey = Server.getInstance().getMojangSecurityKeyFactory().generatePublicKey(serializedJwtRoot);
+        this.mojangRootKey = Server.getInstance().getMojangSecurityKeyFactory()
+                .generatePublicKey(serializedJwtRoot, true);
     }
 
     /**
@@ -1,5 +1,8 @@
 package org.terracottamc.network.security;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import java.security.KeyFactory;
 import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
@@ -20,35 +23,75 @@ import java.util.Base64;
  */
 public class MojangSecurityKeyFactory {
 
-    private KeyFactory keyFactory;
+    private static final int MAXIMUM_CACHED_KEYS = 16;
 
-    /**
-     * Creates a new {@link org.terracottamc.network.security.MojangSecurityKeyFactory}
-     */
-    public MojangSecurityKeyFactory() {
+    // a KeyFactory must not be shared between threads, so that every verification thread gets its own
+    private final ThreadLocal<KeyFactory> keyFactory = ThreadLocal.withInitial(() -> {
         try {
-            this.keyFactory = KeyFactory.getInstance("EC");
+            return KeyFactory.getInstance("EC");
         } catch (final NoSuchAlgorithmException e) {
             e.printStackTrace();
         }
-    }
+
+        return null;
+    });
+    private final Cache<String, PublicKey> publicKeyCache = CacheBuilder.newBuilder()
+            .maximumSize(MojangSecurityKeyFactory.MAXIMUM_CACHED_KEYS)
+            .build();
 
     /**
-     * Creates a public key from its encoded jwt data representation
+     * Creates a public key from its encoded jwt data representation without caching it.
+     * A key which was cached before is returned from the cache
      *
      * @param serializedJwt which is required to build the {@link java.security.PublicKey}
      *
      * @return a fresh generated {@link java.security.PublicKey}
      */
     public PublicKey generatePublicKey(final String serializedJwt) {
+        return this.generatePublicKey(serializedJwt, false);
+    }
+
+    /**
+     * Creates a public key from its encoded jwt data representation.
+     * Only the keys of mojang, like the root key and the intermediate keys it signed, should be cached,
+     * because they are part of every login. The keys of the clients are unique, so that caching them
+     * would evict the keys of mojang
+     *
+     * @param serializedJwt which is required to build the {@link java.security.PublicKey}
+     * @param cacheable     whether the key should be cached by its encoded representation
+     *
+     * @return a fresh generated {@link java.security.PublicKey}
+     */
+    public PublicKey generatePublicKey(final String serializedJwt, final boolean cacheable) {
+        final PublicKey cachedPublicKey = this.publicKeyCache.getIfPresent(serializedJwt);
+
+        if (cachedPublicKey != null) {
+            return cachedPublicKey;
+        }
+
         final X509EncodedKeySpec keySpec = new X509EncodedKeySpec(Base64.getDecoder().decode(serializedJwt));
 
         try {
-            return this.keyFactory.generatePublic(keySpec);
+            final PublicKey publicKey = this.keyFactory.get().generatePublic(keySpec);
+
+            if (cacheable) {
+                this.publicKeyCache.put(serializedJwt, publicKey);
+            }
+
+            return publicKey;
         } catch (final InvalidKeySpecException e) {
             e.printStackTrace();
         }
 
         return null;
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the amount of public keys which are currently cached
+     *
+     * @return a fresh amount of cached keys
+     */
+    public long getCachedKeys() {
+        return this.publicKeyCache.size();
+    }
+}
@@ -31,15 +31,18 @@ public class Jwt {
      * @param jwtRaw the raw data which is needed to create this {@link org.terracottamc.network.security.jwt.Jwt}
      */
     public static Jwt read(final String jwtRaw) {
-        final String[] jwtParts = jwtRaw.split("\\.");
+        // the token is split by hand, because String#split compiles a regex for every token
+        final int headerEndIndex = jwtRaw.indexOf('.');
+        final int payloadEndIndex = headerEndIndex < 0 ? -1 : jwtRaw.indexOf('.', headerEndIndex + 1);
 
-        if (jwtParts.length == 3) {
-            final JsonObject jwtHeaderRaw = new JsonParser()
-                    .parse(new StringReader(new String(Base64.getDecoder().decode(jwtParts[0])))).getAsJsonObject();
-            final JsonObject jwtPayloadRaw = new JsonParser()
-                    .parse(new StringReader(new String(Base64.getDecoder().decode(jwtParts[1])))).getAsJsonObject();
-            final String headerAndPayload = jwtParts[0] + "." + jwtParts[1];
-            final String signaturePart = jwtParts[2];
+        if (payloadEndIndex >= 0 && jwtRaw.indexOf('.', payloadEndIndex + 1) < 0) {
+            final JsonObject jwtHeaderRaw = new JsonParser().parse(new StringReader(new String(Base64.getDecoder()
+                    .decode(jwtRaw.substring(0, headerEndIndex)), StandardCharsets.UTF_8))).getAsJsonObject();
+            final JsonObject jwtPayloadRaw = new JsonParser().parse(new StringReader(new String(Base64.getDecoder()
+                    .decode(jwtRaw.substring(headerEndIndex + 1, payloadEndIndex)), StandardCharsets.UTF_8)))
+                    .getAsJsonObject();
+            final String headerAndPayload = jwtRaw.substring(0, payloadEndIndex);
+            final String signaturePart = jwtRaw.substring(payloadEndIndex + 1);
 
             final Jwt jwt = new Jwt();
             jwt.jwtHeader = new JwtHeader(jwtHeaderRaw);
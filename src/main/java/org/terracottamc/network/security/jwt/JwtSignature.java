@@ -1,5 +1,6 @@
 package org.terracottamc.network.security.jwt;
 
+import java.nio.ByteBuffer;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
@@ -20,6 +21,17 @@ import java.security.SignatureException;
  */
 public class JwtSignature {
 
+    // creating a Signature looks up the provider every time, so that every thread reuses its own instance
+    private static final ThreadLocal<Signature> SIGNATURE = ThreadLocal.withInitial(() -> {
+        try {
+            return Signature.getInstance("SHA384withECDSA");
+        } catch (final NoSuchAlgorithmException e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    });
+
     /**
      * Retrieves whether this {@link org.terracottamc.network.security.jwt.JwtSignature} is valid
      *
@@ -30,18 +42,48 @@ public class JwtSignature {
      * @return the validation result of this {@link org.terracottamc.network.security.jwt.JwtSignature}
      */
     public boolean isValid(final PublicKey publicKey, final byte[] signatureData, final byte[] signatureDigest) {
+        final Signature signature = JwtSignature.SIGNATURE.get();
+
+        if (signature == null || publicKey == null) {
+            return false;
+        }
+
         try {
-            final Signature signature = Signature.getInstance("SHA384withECDSA");
+            // initializing the signature resets any state of its previous use
+            signature.initVerify(publicKey);
+            signature.update(signatureData);
 
-            try {
-                signature.initVerify(publicKey);
-                signature.update(signatureData);
+            return signature.verify(this.convertConcatRSToDER(signatureDigest));
+        } catch (final InvalidKeyException | SignatureException e) {
+            e.printStackTrace();
+        }
 
-                return signature.verify(this.convertConcatRSToDER(signatureDigest));
-            } catch (final InvalidKeyException | SignatureException e) {
-                e.printStackTrace();
-            }
-        } catch (final NoSuchAlgorithmException e) {
+        return false;
+    }
+
+    /**
+     * Retrieves whether this {@link org.terracottamc.network.security.jwt.JwtSignature} is valid
+     * for signed data which is not available as an array
+     *
+     * @param publicKey       that is needed for the validation
+     * @param signatureData   that should be verified
+     * @param signatureDigest which is used to proof that the signature is valid
+     *
+     * @return the validation result of this {@link org.terracottamc.network.security.jwt.JwtSignature}
+     */
+    public boolean isValid(final PublicKey publicKey, final ByteBuffer signatureData, final byte[] signatureDigest) {
+        final Signature signature = JwtSignature.SIGNATURE.get();
+
+        if (signature == null || publicKey == null) {
+            return false;
+        }
+
+        try {
+            signature.initVerify(publicKey);
+            signature.update(signatureData);
+
+            return signature.verify(this.convertConcatRSToDER(signatureDigest));
+        } catch (final InvalidKeyException | SignatureException e) {
             e.printStackTrace();
         }
 
@@ -58,18 +100,18 @@ public class JwtSignature {
      * @return fresh signed {@link org.terracottamc.network.security.jwt.JwtSignature} data
      */
     public byte[] sign(final PrivateKey privateKey, final byte[] signatureData) {
-        try {
-            final Signature signature = Signature.getInstance("SHA384withECDSA");
+        final Signature signature = JwtSignature.SIGNATURE.get();
 
-            try {
-                signature.initSign(privateKey);
-                signature.update(signatureData);
+        if (signature == null) {
+            return new byte[0];
+        }
 
-                return this.convertDERToConcatRS(signature.sign());
-            } catch (final InvalidKeyException | SignatureException e) {
-                e.printStackTrace();
-            }
-        } catch (final NoSuchAlgorithmException e) {
+        try {
+            signature.initSign(privateKey);
+            signature.update(signatureData);
+
+            return this.convertDERToConcatRS(signature.sign());
+        } catch (final InvalidKeyException | SignatureException e) {
             e.printStackTrace();
         }
 
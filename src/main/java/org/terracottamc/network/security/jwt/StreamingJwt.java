@@ -0,0 +1,117 @@
+package org.terracottamc.network.security.jwt;
+
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class StreamingJwt {
+
+    private final JwtHeader jwtHeader;
+    private final ByteBuf signedPart;
+    private final ByteBuf payloadPart;
+    private final byte[] signatureDigest;
+
+    private StreamingJwt(final JwtHeader jwtHeader, final ByteBuf signedPart, final ByteBuf payloadPart,
+                         final byte[] signatureDigest) {
+        this.jwtHeader = jwtHeader;
+        this.signedPart = signedPart;
+        this.payloadPart = payloadPart;
+        this.signatureDigest = signatureDigest;
+    }
+
+    /**
+     * Creates a new {@link org.terracottamc.network.security.jwt.StreamingJwt} which views the given raw token
+     * without copying it. Only the small header is decoded right away, while the payload is decoded
+     * while it is read. The given {@link io.netty.buffer.ByteBuf} has to stay readable as long as this token is used
+     *
+     * @param jwtRaw the raw data which is needed to create this {@link org.terracottamc.network.security.jwt.StreamingJwt}
+     *
+     * @return a fresh {@link org.terracottamc.network.security.jwt.StreamingJwt} or null, when the token is malformed
+     */
+    public static StreamingJwt read(final ByteBuf jwtRaw) {
+        final int startIndex = jwtRaw.readerIndex();
+        final int endIndex = jwtRaw.writerIndex();
+        final int headerEndIndex = jwtRaw.indexOf(startIndex, endIndex, (byte) '.');
+
+        if (headerEndIndex < 0) {
+            return null;
+        }
+
+        final int payloadEndIndex = jwtRaw.indexOf(headerEndIndex + 1, endIndex, (byte) '.');
+
+        if (payloadEndIndex < 0 || jwtRaw.indexOf(payloadEndIndex + 1, endIndex, (byte) '.') >= 0) {
+            return null;
+        }
+
+        final ByteBuf headerPart = jwtRaw.slice(startIndex, headerEndIndex - startIndex);
+        final JwtHeader jwtHeader = new JwtHeader(new JsonParser().parse(StreamingJwt.openReader(headerPart))
+                .getAsJsonObject());
+        final byte[] signatureDigest = Base64.getUrlDecoder().decode(jwtRaw.toString(payloadEndIndex + 1,
+                endIndex - payloadEndIndex - 1, StandardCharsets.US_ASCII));
+
+        return new StreamingJwt(jwtHeader, jwtRaw.slice(startIndex, payloadEndIndex - startIndex),
+                jwtRaw.slice(headerEndIndex + 1, payloadEndIndex - headerEndIndex - 1), signatureDigest);
+    }
+
+    /**
+     * Retrieves the {@link org.terracottamc.network.security.jwt.JwtHeader} of this token
+     *
+     * @return a fresh {@link org.terracottamc.network.security.jwt.JwtHeader}
+     */
+    public JwtHeader getJwtHeader() {
+        return this.jwtHeader;
+    }
+
+    /**
+     * Opens a {@link com.google.gson.stream.JsonReader} which decodes the payload
+     * of this {@link org.terracottamc.network.security.jwt.StreamingJwt} while it is read
+     *
+     * @return a fresh {@link com.google.gson.stream.JsonReader}
+     */
+    public JsonReader openPayloadReader() {
+        final JsonReader jsonReader = new JsonReader(StreamingJwt.openReader(this.payloadPart.duplicate()));
+        jsonReader.setLenient(true);
+
+        return jsonReader;
+    }
+
+    /**
+     * Retrieves the signed header and payload of this {@link org.terracottamc.network.security.jwt.StreamingJwt}
+     *
+     * @return a fresh {@link java.nio.ByteBuffer} which views the signed data without copying it
+     */
+    public ByteBuffer getSignatureData() {
+        return this.signedPart.nioBuffer();
+    }
+
+    /**
+     * Retrieves the signature digest of this {@link org.terracottamc.network.security.jwt.StreamingJwt}
+     *
+     * @return fresh signature digest
+     */
+    public byte[] getSignatureDigest() {
+        return this.signatureDigest;
+    }
+
+    private static InputStreamReader openReader(final ByteBuf encodedPart) {
+        return new InputStreamReader(Base64.getDecoder().wrap(new ByteBufInputStream(encodedPart)),
+                StandardCharsets.UTF_8);
+    }
+}
@@ -1,19 +1,31 @@
 package org.terracottamc.server;
 
+import io.netty.buffer.ByteBuf;
 import org.apache.commons.math3.util.FastMath;
 import org.terracottamc.config.Config;
 import org.terracottamc.config.ConfigType;
 import org.terracottamc.entity.player.GameMode;
+import org.terracottamc.entity.player.JoinQueue;
 import org.terracottamc.entity.player.Player;
+import org.terracottamc.entity.player.PlayerNetworkConnection;
+import org.terracottamc.entity.player.PlayerRegistry;
+import org.terracottamc.entity.player.skin.SkinStore;
 import org.terracottamc.logging.Logger;
+import org.terracottamc.network.packet.DecodingLimits;
+import org.terracottamc.network.packet.Packet;
+import org.terracottamc.network.packet.Protocol;
+import org.terracottamc.network.packet.cache.StaticPacketCache;
 import org.terracottamc.network.packet.registry.PacketRegistry;
+import org.terracottamc.network.raknet.FlushStrategy;
 import org.terracottamc.network.raknet.RakNetListener;
 import org.terracottamc.network.security.MojangSecurityDecryptionHelper;
+import org.terracottamc.network.security.LoginVerificationExecutor;
 import org.terracottamc.network.security.MojangSecurityKeyFactory;
 import org.terracottamc.resourcepack.ResourcePackManager;
 import org.terracottamc.terminal.Terminal;
 import org.terracottamc.terminal.TerminalThread;
 import org.terracottamc.util.BedrockResourceDataReader;
+import org.terracottamc.util.TokenBucket;
 import org.terracottamc.world.World;
 import org.terracottamc.world.leveldb.LevelDBProvider;
 
@@ -23,8 +35,10 @@ import java.net.InetSocketAddress;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
 /**
@@ -44,13 +58,15 @@ public class Server {
 
     private final long serverId;
     private final PacketRegistry packetRegistry;
-    private final Map<InetSocketAddress, Player> players = new HashMap<>();
+    private final PlayerRegistry playerRegistry = new PlayerRegistry();
+    private final SkinStore skinStore = new SkinStore();
     private final Logger logger = new Logger();
     private final ResourcePackManager resourcePackManager;
     private final MojangSecurityKeyFactory mojangSecurityKeyFactory;
     private final MojangSecurityDecryptionHelper mojangSecurityDecryptionHelper;
     private final File dataFolder;
     private final BlockingQueue<Runnable> mainThreadWorker = new LinkedBlockingQueue<>();
+    private final Queue<PlayerNetworkConnection> pendingFlushes = new ConcurrentLinkedQueue<>();
     private final Map<String, World> worlds = new HashMap<>();
 
     private RakNetListener rakNetListener;
@@ -59,6 +75,10 @@ public class Server {
     private boolean running;
     private int currentServerTick;
     private World defaultWorld;
+    private TokenBucket globalBandwidthBucket;
+    private LoginVerificationExecutor loginVerificationExecutor;
+    private JoinQueue joinQueue;
+    private DecodingLimits decodingLimits;
 
     private Config serverConfig;
 
@@ -75,6 +95,7 @@ public class Server {
         this.mojangSecurityDecryptionHelper = new MojangSecurityDecryptionHelper();
 
         BedrockResourceDataReader.initialize();
+        StaticPacketCache.initialize();
 
         this.mojangSecurityDecryptionHelper.generateMojangRootKey();
 
@@ -110,8 +131,62 @@ public class Server {
         this.serverConfig.addDefault("defaultGameMode", "Creative");
         this.serverConfig.addDefault("forceResourcePacks", false);
         this.serverConfig.addDefault("viewDistance", 8);
+        this.serverConfig.addDefault("networkSockets", Runtime.getRuntime().availableProcessors());
+        this.serverConfig.addDefault("compressionThreshold", 256);
+        this.serverConfig.addDefault("compressionLevel", 7);
+        this.serverConfig.addDefault("adaptiveCompression", true);
+        this.serverConfig.addDefault("compressionThreads", 0);
+        this.serverConfig.addDefault("compressionMaxPendingBatches", 1024);
+        this.serverConfig.addDefault("packetRecycling", false);
+        this.serverConfig.addDefault("dropUnhandledPackets", true);
+        this.serverConfig.addDefault("flushStrategy", FlushStrategy.TICK.getIdentifier());
+        this.serverConfig.addDefault("playerBandwidthLimit", 2 * 1024 * 1024);
+        this.serverConfig.addDefault("globalBandwidthLimit", 0);
+        this.serverConfig.addDefault("loginVerificationThreads",
+                FastMath.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        this.serverConfig.addDefault("loginVerificationMaxQueuedLogins", 256);
+        this.serverConfig.addDefault("encryption", false);
+        this.serverConfig.addDefault("pingRateLimit", 10);
+        this.serverConfig.addDefault("connectionRateLimitPerAddress", 3);
+        this.serverConfig.addDefault("connectionRateLimitPerSubnet", 12);
+        this.serverConfig.addDefault("maxConcurrentJoins", 8);
+        this.serverConfig.addDefault("joinsPerSecond", 4);
+        this.serverConfig.addDefault("joinTimeout", 60);
+        this.serverConfig.addDefault("maxPacketSize", 256 * 1024);
+        this.serverConfig.addDefault("maxLoginPacketSize", 4 * 1024 * 1024);
+        this.serverConfig.addDefault("maxTextPacketSize", 16 * 1024);
+        this.serverConfig.addDefault("maxStringLength", 32 * 1024);
+        this.serverConfig.addDefault("maxByteArrayLength", 256 * 1024);
+        this.serverConfig.addDefault("maxListSize", 1024);
+        this.serverConfig.addDefault("maxDecompressedBatchSize", 8 * 1024 * 1024);
+        this.serverConfig.addDefault("maxPacketsPerBatch", 1024);
         this.serverConfig.save();
 
+        this.loginVerificationExecutor = new LoginVerificationExecutor(
+                this.serverConfig.getInt("loginVerificationThreads"),
+                this.serverConfig.getInt("loginVerificationMaxQueuedLogins"), this.isEncryption());
+
+        this.decodingLimits = new DecodingLimits(this.serverConfig.getInt("maxPacketSize"),
+                this.serverConfig.getInt("maxStringLength"), this.serverConfig.getInt("maxByteArrayLength"),
+                this.serverConfig.getInt("maxListSize"))
+                .setMaxPacketSize(Protocol.LOGIN_PACKET, this.serverConfig.getInt("maxLoginPacketSize"))
+                .setMaxPacketSize(Protocol.TEXT_PACKET, this.serverConfig.getInt("maxTextPacketSize"))
+                .setMaxDecompressedBatchSize(this.serverConfig.getInt("maxDecompressedBatchSize"))
+                .setMaxPacketsPerBatch(this.serverConfig.getInt("maxPacketsPerBatch"));
+
+        this.joinQueue = new JoinQueue(this.serverConfig.getInt("maxConcurrentJoins"),
+                this.serverConfig.getInt("joinsPerSecond"), this.serverConfig.getInt("joinTimeout"));
+
+        final long globalBandwidthLimit = this.serverConfig.getInt("globalBandwidthLimit");
+
+        if (globalBandwidthLimit > 0) {
+            this.globalBandwidthBucket = new TokenBucket(globalBandwidthLimit, globalBandwidthLimit);
+        }
+
+        if (this.isPacketRecycling()) {
+            this.packetRegistry.enablePacketRecycling();
+        }
+
         final Terminal terminal = new Terminal();
 
         this.terminalThread = terminal.getThread();
@@ -139,6 +214,7 @@ public class Server {
 
         this.terminalThread.interrupt();
         this.rakNetListener.close();
+        this.loginVerificationExecutor.close();
         this.running = false;
     }
 
@@ -176,7 +252,17 @@ public class Server {
      * @return a fresh {@link java.util.Collection} of players who are currently playing
      */
     public Collection<Player> getPlayers() {
-        return this.players.values();
+        return this.playerRegistry.getPlayers();
+    }
+
+    /**
+     * Retrieves the {@link org.terracottamc.entity.player.PlayerRegistry} which indexes all players
+     * that are currently playing on this {@link org.terracottamc.server.Server}
+     *
+     * @return a fresh {@link org.terracottamc.entity.player.PlayerRegistry}
+     */
+    public PlayerRegistry getPlayerRegistry() {
+        return this.playerRegistry;
     }
 
     /**
@@ -327,6 +413,199 @@ public class Server {
         return this.serverConfig.getInt("viewDistance");
     }
 
+    /**
+     * Retrieves the amount of sockets the {@link org.terracottamc.network.raknet.RakNetListener}
+     * should bind to the server's port
+     *
+     * @return the amount of network sockets
+     */
+    public int getNetworkSockets() {
+        return this.serverConfig.getInt("networkSockets");
+    }
+
+    /**
+     * Retrieves the size in bytes from which on outgoing batches are deflated
+     *
+     * @return the compression threshold in bytes
+     */
+    public int getCompressionThreshold() {
+        return this.serverConfig.getInt("compressionThreshold");
+    }
+
+    /**
+     * Retrieves the highest deflate level which is used to compress outgoing batches
+     *
+     * @return the compression level
+     */
+    public int getCompressionLevel() {
+        return this.serverConfig.getInt("compressionLevel");
+    }
+
+    /**
+     * Checks whether the compression level should be adapted to the load and the bandwidth of each connection
+     *
+     * @return true, when the compression level is adaptive, otherwise false
+     */
+    public boolean isAdaptiveCompression() {
+        return this.serverConfig.getBoolean("adaptiveCompression");
+    }
+
+    /**
+     * Retrieves the amount of threads which compress outgoing batches off the event loops.
+     * A value of 0 lets the event loops compress the batches themselves
+     *
+     * @return the amount of compression threads
+     */
+    public int getCompressionThreads() {
+        return this.serverConfig.getInt("compressionThreads");
+    }
+
+    /**
+     * Retrieves the amount of batches which may wait for the compression threads before new batches
+     * are compressed on the event loops again
+     *
+     * @return the maximum amount of pending batches
+     */
+    public int getCompressionMaxPendingBatches() {
+        return this.serverConfig.getInt("compressionMaxPendingBatches");
+    }
+
+    /**
+     * Checks whether frequently received packets should be pooled instead of being created for every read
+     *
+     * @return true, when the packet recycling is enabled, otherwise false
+     */
+    public boolean isPacketRecycling() {
+        return this.serverConfig.getBoolean("packetRecycling");
+    }
+
+    /**
+     * Checks whether received packets without a handler should be dropped before they are decoded
+     *
+     * @return true, when unhandled packets are dropped, otherwise false
+     */
+    public boolean isDropUnhandledPackets() {
+        return this.serverConfig.getBoolean("dropUnhandledPackets");
+    }
+
+    /**
+     * Retrieves the {@link org.terracottamc.network.raknet.FlushStrategy} which decides when the packets
+     * of the players are flushed
+     *
+     * @return a fresh {@link org.terracottamc.network.raknet.FlushStrategy}
+     */
+    public FlushStrategy getFlushStrategy() {
+        final FlushStrategy flushStrategy =
+                FlushStrategy.retrieveFlushStrategyByIdentifier(this.serverConfig.getString("flushStrategy"));
+
+        return flushStrategy != null ? flushStrategy : FlushStrategy.TICK;
+    }
+
+    /**
+     * Retrieves the amount of bytes per second which may be sent to a single
+     * {@link org.terracottamc.entity.player.Player}
+     *
+     * @return a fresh amount of bytes per second or 0, when the bandwidth is not limited
+     */
+    public int getPlayerBandwidthLimit() {
+        return this.serverConfig.getInt("playerBandwidthLimit");
+    }
+
+    /**
+     * Retrieves the {@link org.terracottamc.util.TokenBucket} which limits the bytes per second
+     * which are sent to all players together
+     *
+     * @return a fresh {@link org.terracottamc.util.TokenBucket} or null, when the bandwidth is not limited
+     */
+    public TokenBucket getGlobalBandwidthBucket() {
+        return this.globalBandwidthBucket;
+    }
+
+    /**
+     * Retrieves the {@link org.terracottamc.entity.player.skin.SkinStore} which shares identical skins
+     * between the players
+     *
+     * @return a fresh {@link org.terracottamc.entity.player.skin.SkinStore}
+     */
+    public SkinStore getSkinStore() {
+        return this.skinStore;
+    }
+
+    /**
+     * Retrieves the {@link org.terracottamc.network.security.LoginVerificationExecutor} which decodes and verifies
+     * the login data off the network threads
+     *
+     * @return a fresh {@link org.terracottamc.network.security.LoginVerificationExecutor}
+     */
+    public LoginVerificationExecutor getLoginVerificationExecutor() {
+        return this.loginVerificationExecutor;
+    }
+
+    /**
+     * Checks whether the batches of the players are encrypted with the key which is agreed on during the login
+     *
+     * @return true, when the encryption is enabled, otherwise false
+     */
+    public boolean isEncryption() {
+        return this.serverConfig.getBoolean("encryption");
+    }
+
+    /**
+     * Retrieves the amount of unconnected pings a single address may send every second
+     *
+     * @return a fresh amount of pings per second or 0, when the pings are not limited
+     */
+    public int getPingRateLimit() {
+        return this.serverConfig.getInt("pingRateLimit");
+    }
+
+    /**
+     * Retrieves the amount of RakNet sessions a single address may open every second
+     *
+     * @return a fresh amount of sessions per second or 0, when the addresses are not limited
+     */
+    public int getConnectionRateLimitPerAddress() {
+        return this.serverConfig.getInt("connectionRateLimitPerAddress");
+    }
+
+    /**
+     * Retrieves the amount of RakNet sessions a /24 IPv4 or /64 IPv6 subnet may open every second
+     *
+     * @return a fresh amount of sessions per second or 0, when the subnets are not limited
+     */
+    public int getConnectionRateLimitPerSubnet() {
+        return this.serverConfig.getInt("connectionRateLimitPerSubnet");
+    }
+
+    /**
+     * Retrieves the {@link org.terracottamc.entity.player.JoinQueue} which limits the amount of players
+     * who are joining at once
+     *
+     * @return a fresh {@link org.terracottamc.entity.player.JoinQueue}
+     */
+    public JoinQueue getJoinQueue() {
+        return this.joinQueue;
+    }
+
+    /**
+     * Retrieves the {@link org.terracottamc.network.packet.DecodingLimits} which are checked while the received
+     * packets are decoded
+     *
+     * @return fresh {@link org.terracottamc.network.packet.DecodingLimits}
+     */
+    public DecodingLimits getDecodingLimits() {
+        return this.decodingLimits;
+    }
+
+    /**
+     * Retrieves the {@link org.terracottamc.network.raknet.RakNetListener} of this {@link org.terracottamc.server.Server}
+     *
+     * @return a fresh {@link org.terracottamc.network.raknet.RakNetListener}
+     */
+    public RakNetListener getRakNetListener() {
+        return this.rakNetListener;
+    }
+
     /**
      * Offers the given {@link java.lang.Runnable} to the main {@link java.lang.Thread}
      *
@@ -336,14 +615,77 @@ public class Server {
         this.mainThreadWorker.offer(runnable);
     }
 
+    /**
+     * Schedules the given {@link org.terracottamc.entity.player.PlayerNetworkConnection} to be flushed
+     * at the end of the current server tick
+     *
+     * @param playerNetworkConnection which should be flushed
+     */
+    public void scheduleFlush(final PlayerNetworkConnection playerNetworkConnection) {
+        this.pendingFlushes.offer(playerNetworkConnection);
+    }
+
+    /**
+     * Broadcasts the given {@link org.terracottamc.network.packet.Packet} to all players
+     * which are currently playing on this {@link org.terracottamc.server.Server}
+     *
+     * @param packet which should be broadcasted
+     */
+    public void broadcastPacket(final Packet packet) {
+        this.broadcastPacket(packet, this.getPlayers());
+    }
+
+    /**
+     * Broadcasts the given {@link org.terracottamc.network.packet.Packet} to the given players.
+     * The {@link org.terracottamc.network.packet.Packet} is encoded only once per protocol version
+     * and the encoded buffer is shared by all channels
+     *
+     * @param packet  which should be broadcasted
+     * @param players who should receive the {@link org.terracottamc.network.packet.Packet}
+     */
+    public void broadcastPacket(final Packet packet, final Collection<Player> players) {
+        final Map<Integer, ByteBuf> encodedPackets = new HashMap<>();
+
+        try {
+            for (final Player player : players) {
+                final PlayerNetworkConnection playerNetworkConnection = player.getPlayerNetworkConnection();
+                final int protocolVersion = playerNetworkConnection.getProtocolVersion();
+
+                ByteBuf encodedPacket = encodedPackets.get(protocolVersion);
+
+                if (encodedPacket == null) {
+                    encodedPacket = packet.encode(protocolVersion);
+
+                    encodedPackets.put(protocolVersion, encodedPacket);
+                }
+
+                playerNetworkConnection.sendEncodedPacket(encodedPacket.retainedDuplicate());
+            }
+        } finally {
+            for (final ByteBuf encodedPacket : encodedPackets.values()) {
+                encodedPacket.release();
+            }
+        }
+    }
+
     /**
      * Adds a new {@link org.terracottamc.entity.player.Player} to this {@link org.terracottamc.server.Server}
      *
      * @param player who should be added
      */
     public void addPlayer(final Player player) {
-        this.players.put((InetSocketAddress) player.getPlayerNetworkConnection().getRakNetSession().remoteAddress(),
-                player);
+        final PlayerNetworkConnection playerNetworkConnection = player.getPlayerNetworkConnection();
+
+        playerNetworkConnection.bindPlayer(player);
+
+        if (player.getSkin() != null) {
+            player.setSkin(this.skinStore.acquire(player.getSkin()));
+        }
+
+        this.playerRegistry.addPlayer(player);
+
+        // players whose session is closed without a disconnect, for example by a timeout, are removed as well
+        playerNetworkConnection.getRakNetSession().closeFuture().addListener(future -> this.removePlayer(player));
     }
 
     /**
@@ -355,7 +697,7 @@ public class Server {
      * @return a fresh {@link org.terracottamc.entity.player.Player}
      */
     public Player getPlayerByAddress(final InetSocketAddress socketAddress) {
-        return this.players.get(socketAddress);
+        return this.playerRegistry.retrievePlayerByAddress(socketAddress);
     }
 
     /**
@@ -365,7 +707,28 @@ public class Server {
      * @param socketAddress which is used to remove the {@link org.terracottamc.entity.player.Player}
      */
     public void removePlayerByAddress(final InetSocketAddress socketAddress) {
-        this.players.remove(socketAddress);
+        final Player player = this.playerRegistry.retrievePlayerByAddress(socketAddress);
+
+        if (player != null) {
+            this.removePlayer(player);
+        }
+    }
+
+    /**
+     * Removes the given {@link org.terracottamc.entity.player.Player} from this {@link org.terracottamc.server.Server}
+     *
+     * @param player who should be removed
+     */
+    public void removePlayer(final Player player) {
+        this.joinQueue.remove(player);
+
+        if (this.playerRegistry.removePlayer(player)) {
+            player.getPlayerNetworkConnection().unbindPlayer();
+
+            if (player.getSkin() != null) {
+                this.skinStore.release(player.getSkin());
+            }
+        }
     }
 
     /**
@@ -450,6 +813,15 @@ public class Server {
                 }
             }
 
+            this.joinQueue.tick(this.currentServerTick);
+
+            // flushes everything which was written during this tick as one batch per player
+            PlayerNetworkConnection playerNetworkConnection;
+
+            while ((playerNetworkConnection = this.pendingFlushes.poll()) != null) {
+                playerNetworkConnection.flush();
+            }
+
             deltaTime = System.currentTimeMillis() - startTime;
         }
     }
@@ -0,0 +1,67 @@
+package org.terracottamc.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.net.InetAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class AddressRateLimiter {
+
+    private static final int MAXIMUM_TRACKED_ADDRESSES = 65536;
+
+    private final long tokensPerSecond;
+    private final long capacity;
+    // the buckets are bounded and expire, so that spoofed source addresses cannot grow the memory without limit
+    private final Cache<InetAddress, TokenBucket> tokenBuckets = CacheBuilder.newBuilder()
+            .maximumSize(AddressRateLimiter.MAXIMUM_TRACKED_ADDRESSES)
+            .expireAfterAccess(1, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * Creates a new {@link org.terracottamc.util.AddressRateLimiter} which gives every address its own
+     * {@link org.terracottamc.util.TokenBucket}
+     *
+     * @param tokensPerSecond which represents the amount of tokens that is refilled every second
+     * @param capacity        which represents the maximum amount of tokens a single address can save up
+     */
+    public AddressRateLimiter(final long tokensPerSecond, final long capacity) {
+        this.tokensPerSecond = tokensPerSecond;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Takes a single token of the given {@link java.net.InetAddress}
+     *
+     * @param address which should be limited
+     *
+     * @return true, when the address has tokens left, otherwise false
+     */
+    public boolean tryAcquire(final InetAddress address) {
+        // the limiter is shared by all event loops, so that the bucket of an address has to be created atomically
+        final TokenBucket tokenBucket = this.tokenBuckets.asMap().computeIfAbsent(address,
+                key -> new TokenBucket(this.tokensPerSecond, this.capacity));
+
+        return tokenBucket.tryConsume(1);
+    }
+
+    /**
+     * Retrieves the amount of addresses which are currently limited
+     *
+     * @return a fresh amount of tracked addresses
+     */
+    public long size() {
+        return this.tokenBuckets.size();
+    }
+}
@@ -2,12 +2,14 @@ package org.terracottamc.util;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.util.ReferenceCounted;
 import org.terracottamc.entity.metadata.EntityMetadataFlag;
 import org.terracottamc.entity.metadata.EntityMetadataValue;
 import org.terracottamc.math.Vector;
+import org.terracottamc.network.packet.DecodingLimitException;
+import org.terracottamc.network.packet.DecodingLimits;
 import org.terracottamc.world.gamerule.GameRule;
 
-import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
@@ -24,19 +26,23 @@ import java.util.UUID;
  * @author Kaooot
  * @version 1.0
  */
-public class BinaryStream {
+public class BinaryStream implements ReferenceCounted {
 
     private ByteBuf buffer;
+    private DecodingLimits decodingLimits;
 
     /**
-     * Creates a new {@link org.terracottamc.util.BinaryStream} with buffer which has an initialCapacity of zero
+     * Creates a new {@link org.terracottamc.util.BinaryStream} without a buffer.
+     * The buffer is assigned by {@link org.terracottamc.util.BinaryStream#setBuffer(io.netty.buffer.ByteBuf)}
+     * once the stream is encoded or decoded
      */
     public BinaryStream() {
-        this.buffer = Unpooled.buffer(0);
+        this.buffer = Unpooled.EMPTY_BUFFER;
     }
 
     /**
-     * Creates a new {@link org.terracottamc.util.BinaryStream} with given {@link io.netty.buffer.ByteBuf}
+     * Creates a new {@link org.terracottamc.util.BinaryStream} with given {@link io.netty.buffer.ByteBuf}.
+     * The stream holds its own reference of the buffer which is released together with the stream
      *
      * @param buffer which is used to create the {@link org.terracottamc.util.BinaryStream}
      */
@@ -46,12 +52,19 @@ public class BinaryStream {
     }
 
     /**
-     * Updates the used buffer to the given {@link io.netty.buffer.ByteBuf}
+     * Updates the used buffer to the given {@link io.netty.buffer.ByteBuf}.
+     * The stream takes over the reference of the given buffer and releases the previous one
      *
      * @param buffer which should be updated
      */
     public void setBuffer(final ByteBuf buffer) {
+        final ByteBuf previousBuffer = this.buffer;
+
         this.buffer = buffer;
+
+        if (previousBuffer != null && previousBuffer != buffer) {
+            previousBuffer.release();
+        }
     }
 
     /**
@@ -63,6 +76,84 @@ public class BinaryStream {
         return this.buffer;
     }
 
+    /**
+     * Updates the {@link org.terracottamc.network.packet.DecodingLimits} which are checked before anything
+     * is allocated for a read length. Without limits, a length is only checked against the readable bytes
+     *
+     * @param decodingLimits which represents the updated value
+     */
+    public void setDecodingLimits(final DecodingLimits decodingLimits) {
+        this.decodingLimits = decodingLimits;
+    }
+
+    /**
+     * Retrieves the {@link org.terracottamc.network.packet.DecodingLimits} of this stream
+     *
+     * @return a fresh {@link org.terracottamc.network.packet.DecodingLimits} or null, when only the readable bytes
+     * are checked
+     */
+    public DecodingLimits getDecodingLimits() {
+        return this.decodingLimits;
+    }
+
+    /**
+     * Checks a read length before anything is allocated for it. A length can never be larger than the readable
+     * bytes, because every element takes at least one byte, so that a forged length cannot allocate more memory
+     * than the client has actually sent
+     *
+     * @param length    which was read
+     * @param maxLength which represents the largest allowed length
+     * @param type      which describes what the length belongs to
+     *
+     * @return the given length
+     *
+     * @throws org.terracottamc.network.packet.DecodingLimitException when the length exceeds a limit
+     */
+    public int checkLength(final int length, final int maxLength, final String type) {
+        if (length < 0 || length > maxLength || length > this.buffer.readableBytes()) {
+            throw this.createDecodingLimitException("The " + type + " length " + length + " exceeds its limit of " +
+                    maxLength + " or the " + this.buffer.readableBytes() + " readable bytes");
+        }
+
+        return length;
+    }
+
+    /**
+     * Checks the given amount of list elements against the {@link org.terracottamc.network.packet.DecodingLimits}
+     *
+     * @param size which was read
+     *
+     * @return the given size
+     *
+     * @throws org.terracottamc.network.packet.DecodingLimitException when the size exceeds a limit
+     */
+    public int checkListSize(final int size) {
+        return this.checkLength(size, this.decodingLimits != null ? this.decodingLimits.getMaxListSize() :
+                Integer.MAX_VALUE, "list");
+    }
+
+    /**
+     * Reads the amount of elements of a list and checks it before the elements are read
+     *
+     * @return a fresh checked amount of elements
+     */
+    public int readListSize() {
+        return this.checkListSize(this.readUnsignedVarInt());
+    }
+
+    /**
+     * Creates a {@link org.terracottamc.network.packet.DecodingLimitException} which is counted by the
+     * {@link org.terracottamc.network.packet.DecodingLimits} of this stream
+     *
+     * @param message which describes the exceeded limit
+     *
+     * @return a fresh {@link org.terracottamc.network.packet.DecodingLimitException}
+     */
+    protected DecodingLimitException createDecodingLimitException(final String message) {
+        return this.decodingLimits != null ? this.decodingLimits.violation(-1, message) :
+                new DecodingLimitException(message);
+    }
+
     /**
      * Retrieves all available bytes from the buffer
      *
@@ -77,7 +168,7 @@ public class BinaryStream {
     }
 
     public ByteBuf readBytes(final int value) {
-        return this.buffer.readBytes(value);
+        return this.buffer.readBytes(this.checkLength(value, Integer.MAX_VALUE, "byte"));
     }
 
     public void writeBytes(final ByteBuf value) {
@@ -89,12 +180,14 @@ public class BinaryStream {
     }
 
     public void writeByteArray(final byte[] value) {
+        this.buffer.ensureWritable(BinaryStream.computeUnsignedVarIntSize(value.length) + value.length);
         this.writeUnsignedVarInt(value.length);
         this.writeBytes(value);
     }
 
     public byte[] readByteArray() {
-        final byte[] data = new byte[this.readUnsignedVarInt()];
+        final byte[] data = new byte[this.checkLength(this.readUnsignedVarInt(), this.decodingLimits != null ?
+                this.decodingLimits.getMaxByteArrayLength() : Integer.MAX_VALUE, "byte array")];
 
         this.readBytes(data);
 
@@ -198,17 +291,19 @@ public class BinaryStream {
     }
 
     public String readString() {
-        final int length = this.readUnsignedVarInt();
-        final byte[] bytes = new byte[length];
+        final int length = this.checkLength(this.readUnsignedVarInt(), this.decodingLimits != null ?
+                this.decodingLimits.getMaxStringLength() : Integer.MAX_VALUE, "string");
+        final String value = this.buffer.toString(this.buffer.readerIndex(), length, StandardCharsets.UTF_8);
 
-        this.readBytes(bytes);
+        this.buffer.skipBytes(length);
 
-        return new String(bytes, StandardCharsets.UTF_8);
+        return value;
     }
 
     public void writeString(final String value) {
         final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
 
+        this.buffer.ensureWritable(BinaryStream.computeUnsignedVarIntSize(bytes.length) + bytes.length);
         this.writeUnsignedVarInt(bytes.length);
         this.writeBytes(bytes);
     }
@@ -221,8 +316,12 @@ public class BinaryStream {
         this.writeUnsignedVarInt(this.serializeZigZag32(value));
     }
 
+    public long readVarLong() {
+        return this.deserializeZigZag64(this.readUnsignedVarLong());
+    }
+
     public void writeVarLong(final long value) {
-        this.writeVarBigInteger(this.serializeZigZag64(value));
+        this.writeUnsignedVarLong(this.serializeZigZag64(value));
     }
 
     public UUID readUuid() {
@@ -246,54 +345,138 @@ public class BinaryStream {
     }
 
     public int readUnsignedVarInt() {
-        int value = 0;
-        int i = 0;
-        int b;
-
-        while (((b = this.buffer.readByte()) & 0x80) != 0) {
-            value |= (b & 0x7F) << i;
-            i += 7;
-            if (i > 35) {
-                throw new RuntimeException("read UnsignedVarInt is too big");
+        final byte head = this.buffer.readByte();
+
+        // most lengths and ids fit into a single byte
+        if (head >= 0) {
+            return head;
+        }
+
+        int value = head & 0x7F;
+
+        for (int shift = 7; shift < 35; shift += 7) {
+            final byte b = this.buffer.readByte();
+
+            value |= (b & 0x7F) << shift;
+
+            if (b >= 0) {
+                return value;
             }
         }
 
-        return value | (b << i);
+        throw new RuntimeException("read UnsignedVarInt is too big");
     }
 
-    public void writeUnsignedVarInt(int value) {
-        while ((value & 0xFFFFFF80) != 0L) {
-            this.buffer.writeByte((byte) ((value & 0x7F) | 0x80));
-            value >>>= 7;
+    public void writeUnsignedVarInt(final int value) {
+        if ((value & 0xFFFFFF80) == 0) {
+            this.buffer.writeByte(value);
+
+            return;
+        }
+
+        if ((value & 0xFFFFC000) == 0) {
+            this.buffer.writeShort((value & 0x7F | 0x80) << 8 | value >>> 7);
+
+            return;
+        }
+
+        this.buffer.ensureWritable(BinaryStream.computeUnsignedVarIntSize(value));
+
+        int remaining = value;
+
+        while ((remaining & 0xFFFFFF80) != 0) {
+            this.buffer.writeByte(remaining & 0x7F | 0x80);
+
+            remaining >>>= 7;
         }
 
-        this.buffer.writeByte((byte) (value & 0x7F));
+        this.buffer.writeByte(remaining);
     }
 
     public long readUnsignedVarLong() {
-        long value = 0L;
-        int i = 0;
+        final byte head = this.buffer.readByte();
 
-        do {
-            long b;
-            if (((b = this.buffer.readByte()) & 128L) == 0L) {
-                return value | b << i;
-            }
+        if (head >= 0) {
+            return head;
+        }
+
+        long value = head & 0x7F;
+
+        for (int shift = 7; shift < 70; shift += 7) {
+            final byte b = this.buffer.readByte();
 
-            value |= (b & 127L) << i;
-            i += 7;
-        } while (i <= 63);
+            value |= (b & 0x7FL) << shift;
+
+            if (b >= 0) {
+                return value;
+            }
+        }
 
         throw new RuntimeException("read UnsignedVarLong is too big");
     }
 
-    public void writeUnsignedVarLong(long value) {
-        while ((value & 0xFFFFFFFFFFFFFF80L) != 0L) {
-            this.writeByte((byte) (((int) value & 0x7F) | 0x80));
-            value >>>= 7;
+    public void writeUnsignedVarLong(final long value) {
+        if ((value & 0xFFFFFFFFFFFFFF80L) == 0) {
+            this.buffer.writeByte((int) value);
+
+            return;
         }
 
-        this.writeByte((byte) ((int) value & 0x7F));
+        this.buffer.ensureWritable(BinaryStream.computeUnsignedVarLongSize(value));
+
+        long remaining = value;
+
+        while ((remaining & 0xFFFFFFFFFFFFFF80L) != 0) {
+            this.buffer.writeByte((int) remaining & 0x7F | 0x80);
+
+            remaining >>>= 7;
+        }
+
+        this.buffer.writeByte((int) remaining);
+    }
+
+    /**
+     * Computes the amount of bytes the given value takes as unsigned VarInt
+     *
+     * @param value which should be encoded
+     *
+     * @return a fresh amount of bytes between 1 and 5
+     */
+    public static int computeUnsignedVarIntSize(final int value) {
+        return (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    /**
+     * Computes the amount of bytes the given value takes as zigzag encoded VarInt
+     *
+     * @param value which should be encoded
+     *
+     * @return a fresh amount of bytes between 1 and 5
+     */
+    public static int computeVarIntSize(final int value) {
+        return BinaryStream.computeUnsignedVarIntSize(value << 1 ^ value >> 31);
+    }
+
+    /**
+     * Computes the amount of bytes the given value takes as unsigned VarLong
+     *
+     * @param value which should be encoded
+     *
+     * @return a fresh amount of bytes between 1 and 10
+     */
+    public static int computeUnsignedVarLongSize(final long value) {
+        return (63 - Long.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    /**
+     * Computes the amount of bytes the given value takes as zigzag encoded VarLong
+     *
+     * @param value which should be encoded
+     *
+     * @return a fresh amount of bytes between 1 and 10
+     */
+    public static int computeVarLongSize(final long value) {
+        return BinaryStream.computeUnsignedVarLongSize(value << 1 ^ value >> 63);
     }
 
     public Vector readVector() {
@@ -387,41 +570,62 @@ public class BinaryStream {
         }
     }
 
-    private void writeVarBigInteger(BigInteger value) {
-        BigInteger unsigned_long_max_value = new BigInteger("FFFFFFFFFFFFFFFF", 16);
+    private int serializeZigZag32(final int value) {
+        return value << 1 ^ value >> 31;
+    }
 
-        if (value.compareTo(unsigned_long_max_value) > 0) {
-            throw new IllegalArgumentException("The value is too big");
-        }
+    private int deserializeZigZag32(final int value) {
+        return value >>> 1 ^ -(value & 1);
+    }
 
-        value = value.and(unsigned_long_max_value);
+    private long serializeZigZag64(final long value) {
+        return value << 1 ^ value >> 63;
+    }
 
-        final BigInteger i = BigInteger.valueOf(0xffffff80);
-        final BigInteger x7f = BigInteger.valueOf(0x7f);
-        final BigInteger x80 = BigInteger.valueOf(0x80);
+    private long deserializeZigZag64(final long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
 
-        while (!value.and(i).equals(BigInteger.ZERO)) {
-            this.writeByte(value.and(x7f).or(x80).byteValue());
+    @Override
+    public int refCnt() {
+        return this.buffer.refCnt();
+    }
 
-            value = value.shiftRight(7);
-        }
+    @Override
+    public BinaryStream retain() {
+        this.buffer.retain();
 
-        this.writeByte(value.byteValue());
+        return this;
     }
 
-    private BigInteger serializeZigZag64(final long value) {
-        final BigInteger origin = BigInteger.valueOf(value);
-        final BigInteger leftShifted = origin.shiftLeft(1);
-        final BigInteger rightShifted = origin.shiftLeft(63);
+    @Override
+    public BinaryStream retain(final int increment) {
+        this.buffer.retain(increment);
 
-        return leftShifted.xor(rightShifted);
+        return this;
     }
 
-    private int serializeZigZag32(final int value) {
-        return value << 1 ^ value >> 31;
+    @Override
+    public BinaryStream touch() {
+        this.buffer.touch();
+
+        return this;
     }
 
-    private int deserializeZigZag32(final int value) {
-        return value >> 1 ^ -(value & 1);
+    @Override
+    public BinaryStream touch(final Object hint) {
+        this.buffer.touch(hint);
+
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return this.buffer.release();
+    }
+
+    @Override
+    public boolean release(final int decrement) {
+        return this.buffer.release(decrement);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,96 @@
+package org.terracottamc.util;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class TokenBucket {
+
+    private final double tokensPerNanosecond;
+    private final long capacity;
+
+    private double tokens;
+    private long lastRefillTime;
+
+    /**
+     * Creates a new {@link org.terracottamc.util.TokenBucket} which starts full
+     *
+     * @param tokensPerSecond which represents the amount of tokens that is refilled every second
+     * @param capacity        which represents the maximum amount of tokens this bucket can hold
+     */
+    public TokenBucket(final long tokensPerSecond, final long capacity) {
+        this.tokensPerNanosecond = tokensPerSecond / 1_000_000_000D;
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.lastRefillTime = System.nanoTime();
+    }
+
+    /**
+     * Checks whether this {@link org.terracottamc.util.TokenBucket} has tokens left
+     *
+     * @return true, when at least one token is left, otherwise false
+     */
+    public synchronized boolean hasTokens() {
+        this.refill();
+
+        return this.tokens > 0;
+    }
+
+    /**
+     * Takes the given amount of tokens, as long as at least one token is left.
+     * The bucket may be overdrawn by a single call, so that amounts larger than the capacity pass too
+     * and are paid back by the following refills
+     *
+     * @param amount which represents the amount of tokens that should be taken
+     *
+     * @return true, when the tokens were taken, otherwise false
+     */
+    public synchronized boolean tryConsume(final long amount) {
+        this.refill();
+
+        if (this.tokens <= 0) {
+            return false;
+        }
+
+        this.tokens -= amount;
+
+        return true;
+    }
+
+    /**
+     * Takes the given amount of tokens without checking whether they are left
+     *
+     * @param amount which represents the amount of tokens that should be taken
+     */
+    public synchronized void consume(final long amount) {
+        this.refill();
+
+        this.tokens -= amount;
+    }
+
+    /**
+     * Retrieves the amount of tokens which are currently left
+     *
+     * @return a fresh amount of tokens, which is negative while the bucket is overdrawn
+     */
+    public synchronized long getTokens() {
+        this.refill();
+
+        return (long) this.tokens;
+    }
+
+    private void refill() {
+        final long currentTime = System.nanoTime();
+
+        this.tokens = Math.min(this.capacity,
+                this.tokens + (currentTime - this.lastRefillTime) * this.tokensPerNanosecond);
+        this.lastRefillTime = currentTime;
+    }
+}
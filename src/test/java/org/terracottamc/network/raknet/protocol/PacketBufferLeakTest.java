@@ -0,0 +1,268 @@
+package org.terracottamc.network.raknet.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ResourceLeakDetector;
+import io.netty.util.ResourceLeakDetectorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.terracottamc.entity.player.Player;
+import org.terracottamc.logging.Logger;
+import org.terracottamc.network.packet.DecodingLimits;
+import org.terracottamc.network.packet.Protocol;
+import org.terracottamc.network.packet.RequestChunkRadiusPacket;
+import org.terracottamc.network.packet.ResourcePackClientResponsePacket;
+import org.terracottamc.network.packet.SetTimePacket;
+import org.terracottamc.network.packet.handler.IPacketHandler;
+import org.terracottamc.network.packet.registry.PacketRegistry;
+import org.terracottamc.util.BinaryStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Copyright (c) 2021, TerracottaMC
+ * All rights reserved.
+ *
+ * <p>
+ * This project is licensed under the BSD 3-Clause License which
+ * can be found in the root directory of this source tree
+ *
+ * @author Kaooot
+ * @version 1.0
+ */
+public class PacketBufferLeakTest {
+
+    private static final Queue<String> REPORTED_LEAKS = new ConcurrentLinkedQueue<>();
+
+    static {
+        // the detector of the buffers is created once the first buffer class is loaded, so that it is replaced before
+        ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.PARANOID);
+        ResourceLeakDetectorFactory.setResourceLeakDetectorFactory(new ResourceLeakDetectorFactory() {
+            @Override
+            public <T> ResourceLeakDetector<T> newResourceLeakDetector(final Class<T> resource,
+                                                                       final int samplingInterval,
+                                                                       final long maxActive) {
+                return new RecordingLeakDetector<>(resource, samplingInterval);
+            }
+        });
+    }
+
+    @AfterEach
+    public void assertNoLeaks() throws InterruptedException {
+        final List<String> reportedLeaks = PacketBufferLeakTest.collectLeaks(5);
+
+        assertTrue(reportedLeaks.isEmpty(), () -> "Leaked buffers: " + reportedLeaks);
+    }
+
+    @Test
+    public void detectsLeakedBuffers() throws InterruptedException {
+        PacketBufferLeakTest.leakBuffer();
+
+        assertFalse(PacketBufferLeakTest.collectLeaks(50).isEmpty(), "The leak detector is not active");
+    }
+
+    @Test
+    public void releasesEncodedPackets() {
+        final EmbeddedChannel channel = new EmbeddedChannel(new ProtocolEncoder());
+        final SetTimePacket setTimePacket = new SetTimePacket();
+
+        for (int i = 0; i < 100; i++) {
+            setTimePacket.setTime(i);
+
+            // the same instance is encoded again, because the packet does not keep a reference of its buffer
+            assertTrue(channel.writeOutbound(setTimePacket));
+
+            final ByteBuf encodedPacket = channel.readOutbound();
+
+            assertEquals(Protocol.SET_TIME_PACKET, encodedPacket.getUnsignedByte(encodedPacket.readerIndex()));
+            assertTrue(encodedPacket.release());
+        }
+
+        assertFalse(channel.finishAndReleaseAll());
+    }
+
+    @Test
+    public void releasesBroadcastPackets() {
+        final SetTimePacket setTimePacket = new SetTimePacket();
+        setTimePacket.setTime(6000);
+
+        final ByteBuf encodedPacket = setTimePacket.encode(Protocol.CURRENT_PROTOCOL);
+        final List<EmbeddedChannel> channels = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++) {
+            final EmbeddedChannel channel = new EmbeddedChannel();
+            channel.writeOutbound(encodedPacket.retainedDuplicate());
+
+            channels.add(channel);
+        }
+
+        assertEquals(9, encodedPacket.refCnt());
+
+        for (final EmbeddedChannel channel : channels) {
+            final ByteBuf sentPacket = channel.readOutbound();
+
+            assertEquals(encodedPacket.readableBytes(), sentPacket.readableBytes());
+
+            sentPacket.release();
+
+            assertFalse(channel.finishAndReleaseAll());
+        }
+
+        assertTrue(encodedPacket.release());
+    }
+
+    @Test
+    public void releasesRecycledInboundPackets() {
+        final PacketRegistry packetRegistry = new PacketRegistry();
+        packetRegistry.enablePacketRecycling();
+
+        final List<Integer> chunkRadii = new ArrayList<>();
+        final List<Integer> resourcePackEntries = new ArrayList<>();
+
+        packetRegistry.registerPacketHandler(Protocol.REQUEST_CHUNK_RADIUS_PACKET,
+                new IPacketHandler<RequestChunkRadiusPacket>() {
+                    @Override
+                    public void handle(final RequestChunkRadiusPacket packet, final Player player) {
+                    }
+
+                    @Override
+                    public void handle(final RequestChunkRadiusPacket packet, final Channel channel,
+                                       final Player player) {
+                        chunkRadii.add(packet.getChunkRadius());
+                    }
+                });
+        packetRegistry.registerPacketHandler(Protocol.RESOURCE_PACK_CLIENT_RESPONSE_PACKET,
+                new IPacketHandler<ResourcePackClientResponsePacket>() {
+                    @Override
+                    public void handle(final ResourcePackClientResponsePacket packet, final Player player) {
+                    }
+
+                    @Override
+                    public void handle(final ResourcePackClientResponsePacket packet, final Channel channel,
+                                       final Player player) {
+                        resourcePackEntries.add(packet.getResourcePackEntries().size());
+                    }
+                });
+
+        final DecodingLimits decodingLimits = new DecodingLimits(2 * 1024 * 1024, 32767, 2 * 1024 * 1024, 4096);
+        final Logger logger = new Logger();
+        final EmbeddedChannel channel = new EmbeddedChannel(new ProtocolDecoder(packetRegistry,
+                new InboundPacketStatistics(), true, decodingLimits, logger),
+                new ProtocolHandler(packetRegistry, Runnable::run, logger));
+        final List<ByteBuf> receivedBuffers = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            final BinaryStream requestChunkRadius = PacketBufferLeakTest.createPacketStream(channel,
+                    Protocol.REQUEST_CHUNK_RADIUS_PACKET);
+            requestChunkRadius.writeVarInt(i);
+
+            // pooled and lazily decoded
+            final BinaryStream resourcePackClientResponse = PacketBufferLeakTest.createPacketStream(channel,
+                    Protocol.RESOURCE_PACK_CLIENT_RESPONSE_PACKET);
+            resourcePackClientResponse.writeByte(3);
+            resourcePackClientResponse.writeShortLE(0);
+
+            // dropped, because it is not handled
+            final BinaryStream tickSync = PacketBufferLeakTest.createPacketStream(channel,
+                    Protocol.TICK_SYNC_PACKET);
+            tickSync.writeLongLE(i);
+            tickSync.writeLongLE(i);
+
+            // unknown
+            final BinaryStream unknownPacket = PacketBufferLeakTest.createPacketStream(channel, 0x3FF);
+
+            for (final BinaryStream packetStream : new BinaryStream[]{requestChunkRadius, resourcePackClientResponse,
+                    tickSync, unknownPacket}) {
+                receivedBuffers.add(packetStream.getBuffer());
+
+                channel.writeInbound(packetStream.getBuffer());
+            }
+        }
+
+        // exceeds the list limit while it is lazily decoded, so that the session is closed
+        final BinaryStream oversizedResponse = PacketBufferLeakTest.createPacketStream(channel,
+                Protocol.RESOURCE_PACK_CLIENT_RESPONSE_PACKET);
+        oversizedResponse.writeByte(3);
+        oversizedResponse.writeShortLE(5000);
+
+        receivedBuffers.add(oversizedResponse.getBuffer());
+
+        channel.writeInbound(oversizedResponse.getBuffer());
+
+        assertEquals(100, chunkRadii.size());
+        assertEquals(99, chunkRadii.get(99));
+        assertEquals(100, resourcePackEntries.size());
+        assertFalse(channel.isOpen());
+
+        for (final ByteBuf receivedBuffer : receivedBuffers) {
+            assertEquals(0, receivedBuffer.refCnt());
+        }
+
+        assertFalse(channel.finishAndReleaseAll());
+    }
+
+    private static BinaryStream createPacketStream(final Channel channel, final int packetId) {
+        final BinaryStream packetStream = new BinaryStream();
+        packetStream.setBuffer(channel.alloc().ioBuffer());
+        packetStream.writeUnsignedVarInt(packetId);
+
+        return packetStream;
+    }
+
+    private static void leakBuffer() {
+        ByteBufAllocator.DEFAULT.ioBuffer(16).writeLong(0);
+    }
+
+    /**
+     * Collects the garbage and allocates buffers, so that the detector reports the leaks it has noticed
+     *
+     * @param rounds which represents how often the garbage is collected
+     *
+     * @return a fresh {@link java.util.List} of the reported leaks
+     */
+    private static List<String> collectLeaks(final int rounds) throws InterruptedException {
+        for (int i = 0; i < rounds && PacketBufferLeakTest.REPORTED_LEAKS.isEmpty(); i++) {
+            System.gc();
+            Thread.sleep(20);
+
+            ByteBufAllocator.DEFAULT.ioBuffer(16).release();
+        }
+
+        final List<String> reportedLeaks = new ArrayList<>(PacketBufferLeakTest.REPORTED_LEAKS);
+
+        PacketBufferLeakTest.REPORTED_LEAKS.clear();
+
+        return reportedLeaks;
+    }
+
+    private static class RecordingLeakDetector<T> extends ResourceLeakDetector<T> {
+
+        private RecordingLeakDetector(final Class<T> resourceType, final int samplingInterval) {
+            super(resourceType, samplingInterval);
+        }
+
+        @Override
+        protected boolean needReport() {
+            return true;
+        }
+
+        @Override
+        protected void reportTracedLeak(final String resourceType, final String records) {
+            PacketBufferLeakTest.REPORTED_LEAKS.add(resourceType + records);
+        }
+
+        @Override
+        protected void reportUntracedLeak(final String resourceType) {
+            PacketBufferLeakTest.REPORTED_LEAKS.add(resourceType);
+        }
+    }
+}